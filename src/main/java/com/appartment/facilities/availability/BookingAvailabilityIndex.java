@@ -0,0 +1,297 @@
+package com.appartment.facilities.availability;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.appartment.facilities.constants.MessageConstants;
+import com.appartment.facilities.entity.Booking;
+import com.appartment.facilities.repository.BookingRepository;
+import com.appartment.facilities.repository.FacilityRepository;
+import com.appartment.facilities.repository.FacilityVersion;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory interval index of the booked time slots of every facility.
+ * Slots are kept sorted by start time, so an overlap check only looks at the
+ * slots starting within the longest booked duration before the requested
+ * end instead of scanning the Booking table. Slots admitted through the
+ * index never overlap, but legacy rows may, which is why the check does
+ * not stop at the nearest earlier slot. The index is rebuilt from the database at startup from
+ * the bookings that have not ended yet, and slots are pruned once they have
+ * ended, so its size follows the upcoming bookings rather than the history.
+ * Legacy rows may share a start time, so each start keeps a list of slots.
+ * Alongside the intervals it keeps an {@link OccupancyBitmap} per facility
+ * so free/busy reads never have to walk the slots. It also records the
+ * facility version its slots reflect, so a writer can tell whether another
+ * node has booked the facility since and only then reload it.
+ */
+@Component
+public class BookingAvailabilityIndex {
+
+	public static final List<String> RELEASED_STATUSES = List.of(MessageConstants.BOOKING_CANCELLED,
+			MessageConstants.BOOKING_DECLINED);
+
+	private static final long MINUTES_PER_DAY = TimeUnit.DAYS.toMinutes(1);
+
+	private final ConcurrentMap<Integer, NavigableMap<Long, List<BookedSlot>>> slotsByFacility = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Integer, OccupancyBitmap> occupancyByFacility = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Integer, Integer> versionByFacility = new ConcurrentHashMap<>();
+
+	private final AtomicLong longestSlotMillis = new AtomicLong();
+
+	@Autowired
+	BookingRepository bookingRepository;
+
+	@Autowired
+	FacilityRepository facilityRepository;
+
+	@Value("${booking.slot.default-minutes:60}")
+	private long defaultSlotMinutes = 60;
+
+	@Value("${availability.slot-minutes:30}")
+	private long occupancySlotMinutes = 30;
+
+	@PostConstruct
+	public void rebuild() {
+		if (occupancySlotMinutes <= 0 || MINUTES_PER_DAY % occupancySlotMinutes != 0) {
+			throw new IllegalStateException("availability.slot-minutes must divide a day, got " + occupancySlotMinutes);
+		}
+		slotsByFacility.clear();
+		occupancyByFacility.clear();
+		versionByFacility.clear();
+		longestSlotMillis.set(0);
+		// versions first: a booking committed in between makes them stale, never the slots
+		for (FacilityVersion facility : facilityRepository.findAllVersions()) {
+			if (facility.getVersion() != null) {
+				versionByFacility.put(facility.getId(), facility.getVersion());
+			}
+		}
+		Date now = new Date();
+		for (Booking booking : bookingRepository.findActiveEndingAfter(RELEASED_STATUSES, now,
+				earliestActiveStart(now))) {
+			if (booking.getFacilityId() != null) {
+				addSlot(booking.getFacilityId(), slotsOf(booking.getFacilityId()), booking);
+			}
+		}
+	}
+
+	/**
+	 * Drops the slots that have ended and the occupancy days before today.
+	 */
+	@Scheduled(fixedDelayString = "${booking.availability.prune-ms:3600000}",
+			initialDelayString = "${booking.availability.prune-ms:3600000}")
+	public void prune() {
+		long now = System.currentTimeMillis();
+		long today = Math.floorDiv(now, TimeUnit.DAYS.toMillis(1));
+		for (NavigableMap<Long, List<BookedSlot>> slots : slotsByFacility.values()) {
+			synchronized (slots) {
+				Iterator<List<BookedSlot>> started = slots.headMap(now, false).values().iterator();
+				while (started.hasNext()) {
+					List<BookedSlot> slotsAtStart = started.next();
+					slotsAtStart.removeIf(slot -> slot.end <= now);
+					if (slotsAtStart.isEmpty()) {
+						started.remove();
+					}
+				}
+			}
+		}
+		long slotsPerDay = MINUTES_PER_DAY / occupancySlotMinutes;
+		occupancyByFacility.values().forEach(occupancy -> occupancy.clearBefore(today * slotsPerDay));
+	}
+
+	/**
+	 * Earliest start of a legacy booking without an end time that has not
+	 * ended by {@code now}; such a booking lasts the default slot length.
+	 */
+	public Date earliestActiveStart(Date now) {
+		return new Date(now.getTime() - TimeUnit.MINUTES.toMillis(defaultSlotMinutes));
+	}
+
+	/**
+	 * Replaces the slots of one facility with the given active bookings, read
+	 * after the facility was at {@code version}. Used when another writer has
+	 * changed the facility behind this index.
+	 */
+	public void reload(int facilityId, Integer version, List<Booking> activeBookings) {
+		NavigableMap<Long, List<BookedSlot>> slots = slotsOf(facilityId);
+		synchronized (slots) {
+			slots.clear();
+			occupancyOf(facilityId).clear();
+			for (Booking booking : activeBookings) {
+				addSlot(facilityId, slots, booking);
+			}
+			setVersion(facilityId, version);
+		}
+	}
+
+	/**
+	 * Whether the slots of the facility include every booking made up to
+	 * {@code version}.
+	 */
+	public boolean isCurrent(int facilityId, Integer version) {
+		return version != null && version.equals(versionByFacility.get(facilityId));
+	}
+
+	/**
+	 * Records a facility version written by this node, whose bookings are
+	 * already in the index.
+	 */
+	public void setVersion(int facilityId, Integer version) {
+		if (version == null) {
+			versionByFacility.remove(facilityId);
+		} else {
+			versionByFacility.put(facilityId, version);
+		}
+	}
+
+	public Date defaultEndFor(Date eventDate) {
+		return new Date(eventDate.getTime() + TimeUnit.MINUTES.toMillis(defaultSlotMinutes));
+	}
+
+	public Date endOf(Booking booking) {
+		return booking.getEventEndDate() != null ? booking.getEventEndDate() : defaultEndFor(booking.getEventDate());
+	}
+
+	public static boolean isReleased(String status) {
+		return status != null && RELEASED_STATUSES.stream().anyMatch(status::equalsIgnoreCase);
+	}
+
+	public boolean isAvailable(int facilityId, Date start, Date end) {
+		NavigableMap<Long, List<BookedSlot>> slots = slotsByFacility.get(facilityId);
+		if (slots == null) {
+			return true;
+		}
+		synchronized (slots) {
+			return !overlaps(slots, start.getTime(), end.getTime());
+		}
+	}
+
+	/**
+	 * Atomically checks the slot and records it. Returns false when it overlaps
+	 * a slot that is already booked.
+	 */
+	public boolean reserve(int facilityId, int bookingId, Date start, Date end) {
+		NavigableMap<Long, List<BookedSlot>> slots = slotsOf(facilityId);
+		synchronized (slots) {
+			if (overlaps(slots, start.getTime(), end.getTime())) {
+				return false;
+			}
+			put(slots, start.getTime(), new BookedSlot(end.getTime(), bookingId));
+			markBusy(facilityId, start.getTime(), end.getTime());
+			return true;
+		}
+	}
+
+	public void release(int facilityId, int bookingId, Date start) {
+		NavigableMap<Long, List<BookedSlot>> slots = slotsByFacility.get(facilityId);
+		if (slots == null || start == null) {
+			return;
+		}
+		synchronized (slots) {
+			List<BookedSlot> slotsAtStart = slots.get(start.getTime());
+			if (slotsAtStart == null) {
+				return;
+			}
+			for (Iterator<BookedSlot> iterator = slotsAtStart.iterator(); iterator.hasNext();) {
+				BookedSlot slot = iterator.next();
+				if (slot.bookingId == bookingId) {
+					iterator.remove();
+					if (slotsAtStart.isEmpty()) {
+						slots.remove(start.getTime());
+					}
+					refreshOccupancy(facilityId, slots, start.getTime(), slot.end);
+					return;
+				}
+			}
+		}
+	}
+
+	public long occupancySlotMillis() {
+		return TimeUnit.MINUTES.toMillis(occupancySlotMinutes);
+	}
+
+	/**
+	 * Busy bits of the occupancy slots {@code [fromSlot, toSlot)}, numbered
+	 * from the epoch in units of {@link #occupancySlotMillis()}.
+	 */
+	public BitSet occupancy(int facilityId, long fromSlot, long toSlot) {
+		OccupancyBitmap occupancy = occupancyByFacility.get(facilityId);
+		return occupancy == null ? new BitSet() : occupancy.get(fromSlot, toSlot);
+	}
+
+	private NavigableMap<Long, List<BookedSlot>> slotsOf(int facilityId) {
+		return slotsByFacility.computeIfAbsent(facilityId, id -> new TreeMap<>());
+	}
+
+	private OccupancyBitmap occupancyOf(int facilityId) {
+		return occupancyByFacility.computeIfAbsent(facilityId,
+				id -> new OccupancyBitmap((int) (MINUTES_PER_DAY / occupancySlotMinutes)));
+	}
+
+	private void addSlot(int facilityId, NavigableMap<Long, List<BookedSlot>> slots, Booking booking) {
+		if (booking.getEventDate() != null) {
+			long end = endOf(booking).getTime();
+			put(slots, booking.getEventDate().getTime(), new BookedSlot(end, booking.getId()));
+			markBusy(facilityId, booking.getEventDate().getTime(), end);
+		}
+	}
+
+	private void put(NavigableMap<Long, List<BookedSlot>> slots, long start, BookedSlot slot) {
+		slots.computeIfAbsent(start, key -> new ArrayList<>(1)).add(slot);
+		longestSlotMillis.accumulateAndGet(slot.end - start, Math::max);
+	}
+
+	private void markBusy(int facilityId, long start, long end) {
+		long slotMillis = occupancySlotMillis();
+		occupancyOf(facilityId).set(Math.floorDiv(start, slotMillis), -Math.floorDiv(-end, slotMillis), true);
+	}
+
+	// a freed occupancy slot may still be partly covered by a neighbouring booking
+	private void refreshOccupancy(int facilityId, NavigableMap<Long, List<BookedSlot>> slots, long start, long end) {
+		long slotMillis = occupancySlotMillis();
+		OccupancyBitmap occupancy = occupancyOf(facilityId);
+		for (long slot = Math.floorDiv(start, slotMillis); slot < -Math.floorDiv(-end, slotMillis); slot++) {
+			occupancy.set(slot, slot + 1, overlaps(slots, slot * slotMillis, (slot + 1) * slotMillis));
+		}
+	}
+
+	private boolean overlaps(NavigableMap<Long, List<BookedSlot>> slots, long start, long end) {
+		// a slot starting longer ago than the longest booking has ended by start
+		for (List<BookedSlot> slotsAtStart : slots.subMap(start - longestSlotMillis.get(), false, end, false)
+				.values()) {
+			for (BookedSlot slot : slotsAtStart) {
+				if (slot.end > start) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static final class BookedSlot {
+		private final long end;
+		private final int bookingId;
+
+		private BookedSlot(long end, int bookingId) {
+			this.end = end;
+			this.bookingId = bookingId;
+		}
+	}
+}
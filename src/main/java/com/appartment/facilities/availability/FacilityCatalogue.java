@@ -0,0 +1,143 @@
+package com.appartment.facilities.availability;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.appartment.facilities.dto.FacilityDto;
+import com.appartment.facilities.entity.Facility;
+import com.appartment.facilities.repository.FacilityRepository;
+import com.appartment.facilities.storage.PictureDerivatives;
+import com.appartment.facilities.storage.PictureDerivatives.Size;
+import com.appartment.facilities.storage.PictureStore;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-process copy of the facility catalogue, read on every home screen.
+ * Readers get an immutable snapshot from a single volatile read, so they
+ * never lock and never reach the database. Writers build a new snapshot
+ * and swap it in with a compare-and-set. The DTOs in a snapshot are shared
+ * between readers and must not be modified. A periodic reload picks up
+ * changes made by other nodes.
+ */
+@Component
+public class FacilityCatalogue {
+
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(new TreeMap<>()));
+
+	@Autowired
+	FacilityRepository facilityRepository;
+
+	@PostConstruct
+	@Scheduled(fixedDelayString = "${facility.catalogue.refresh-ms:60000}",
+			initialDelayString = "${facility.catalogue.refresh-ms:60000}")
+	public void reload() {
+		Snapshot before = snapshot.get();
+		Map<Integer, FacilityDto> facilities = new TreeMap<>();
+		for (Facility facility : facilityRepository.findAll()) {
+			facilities.put(facility.getId(), toDto(facility));
+		}
+		// a local write during the query is newer than what was read, the next reload catches up
+		snapshot.compareAndSet(before, new Snapshot(facilities));
+	}
+
+	public List<FacilityDto> getAll() {
+		return snapshot.get().list;
+	}
+
+	/**
+	 * Up to {@code limit} facilities with an id greater than {@code after},
+	 * ordered by id.
+	 */
+	public List<FacilityDto> getPage(Integer after, int limit) {
+		List<FacilityDto> list = snapshot.get().list;
+		int from = 0;
+		if (after != null) {
+			int to = list.size();
+			while (from < to) {
+				int middle = (from + to) >>> 1;
+				if (list.get(middle).getId() <= after) {
+					from = middle + 1;
+				} else {
+					to = middle;
+				}
+			}
+		}
+		return list.subList(from, Math.min(list.size(), from + limit));
+	}
+
+	/**
+	 * The facility with the given id, or null when there is none.
+	 */
+	public FacilityDto get(int id) {
+		return snapshot.get().byId.get(id);
+	}
+
+	public void put(Facility facility) {
+		FacilityDto facilityDto = toDto(facility);
+		update(facilities -> {
+			facilities.put(facilityDto.getId(), facilityDto);
+			return facilities;
+		});
+	}
+
+	public void remove(int id) {
+		update(facilities -> {
+			facilities.remove(id);
+			return facilities;
+		});
+	}
+
+	public void updateStatus(Collection<Integer> facilityIds, String status) {
+		update(facilities -> {
+			for (Integer id : facilityIds) {
+				FacilityDto current = facilities.get(id);
+				if (current != null) {
+					FacilityDto updated = copyOf(current);
+					updated.setStatus(status);
+					facilities.put(id, updated);
+				}
+			}
+			return facilities;
+		});
+	}
+
+	private void update(UnaryOperator<Map<Integer, FacilityDto>> change) {
+		snapshot.updateAndGet(current -> new Snapshot(change.apply(new TreeMap<>(current.byId))));
+	}
+
+	private static FacilityDto toDto(Facility facility) {
+		FacilityDto facilityDto = new FacilityDto(facility.getId(), facility.getName(), facility.getStatus(),
+				facility.getDescription(), PictureStore.toUrl(facility.getPicture()));
+		facilityDto.setPictureThumbnail(PictureDerivatives.toUrl(facility.getPicture(), Size.THUMBNAIL));
+		facilityDto.setPictureMedium(PictureDerivatives.toUrl(facility.getPicture(), Size.MEDIUM));
+		return facilityDto;
+	}
+
+	private static FacilityDto copyOf(FacilityDto facilityDto) {
+		FacilityDto copy = new FacilityDto(facilityDto.getId(), facilityDto.getName(), facilityDto.getStatus(),
+				facilityDto.getDescription(), facilityDto.getPicture());
+		copy.setPictureThumbnail(facilityDto.getPictureThumbnail());
+		copy.setPictureMedium(facilityDto.getPictureMedium());
+		return copy;
+	}
+
+	private static final class Snapshot {
+		private final Map<Integer, FacilityDto> byId;
+		private final List<FacilityDto> list;
+
+		private Snapshot(Map<Integer, FacilityDto> facilities) {
+			this.byId = Map.copyOf(facilities);
+			// ordered by id, like the table scan it replaces
+			this.list = List.copyOf(facilities.values());
+		}
+	}
+}
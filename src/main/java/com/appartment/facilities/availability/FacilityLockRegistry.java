@@ -0,0 +1,23 @@
+package com.appartment.facilities.availability;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Admission locks for booking creation. Each facility gets its own lock
+ * stripe, so bookings for unrelated facilities never wait on each other.
+ * Stripes are created on first use and are bounded by the number of facilities.
+ */
+@Component
+public class FacilityLockRegistry {
+
+	private final ConcurrentMap<Integer, Lock> stripes = new ConcurrentHashMap<>();
+
+	public Lock lockFor(int facilityId) {
+		return stripes.computeIfAbsent(facilityId, id -> new ReentrantLock());
+	}
+}
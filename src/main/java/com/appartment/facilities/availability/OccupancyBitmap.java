@@ -0,0 +1,81 @@
+package com.appartment.facilities.availability;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Busy/free bits of one facility, one bit per slot, grouped into UTC days.
+ * Slots are numbered from the epoch so a day never has a DST-shifted length.
+ * Only days that hold a booking are stored.
+ */
+public class OccupancyBitmap {
+
+	private final int slotsPerDay;
+	private final Map<Long, long[]> days = new HashMap<>();
+
+	public OccupancyBitmap(int slotsPerDay) {
+		this.slotsPerDay = slotsPerDay;
+	}
+
+	/** Marks the slots {@code [fromSlot, toSlot)} busy or free. */
+	public synchronized void set(long fromSlot, long toSlot, boolean busy) {
+		for (long slot = fromSlot; slot < toSlot; slot++) {
+			long day = Math.floorDiv(slot, slotsPerDay);
+			int bit = (int) Math.floorMod(slot, slotsPerDay);
+			long[] words = days.get(day);
+			if (busy) {
+				if (words == null) {
+					words = new long[(slotsPerDay + 63) / 64];
+					days.put(day, words);
+				}
+				words[bit >>> 6] |= 1L << bit;
+			} else if (words != null) {
+				words[bit >>> 6] &= ~(1L << bit);
+				if (isEmpty(words)) {
+					days.remove(day);
+				}
+			}
+		}
+	}
+
+	/** Bit {@code i} of the result is set when slot {@code fromSlot + i} is busy. */
+	public synchronized BitSet get(long fromSlot, long toSlot) {
+		BitSet busy = new BitSet((int) (toSlot - fromSlot));
+		long slot = fromSlot;
+		while (slot < toSlot) {
+			long day = Math.floorDiv(slot, slotsPerDay);
+			long dayEnd = Math.min((day + 1) * slotsPerDay, toSlot);
+			long[] words = days.get(day);
+			if (words != null) {
+				for (long s = slot; s < dayEnd; s++) {
+					int bit = (int) (s - day * slotsPerDay);
+					if ((words[bit >>> 6] & (1L << bit)) != 0) {
+						busy.set((int) (s - fromSlot));
+					}
+				}
+			}
+			slot = dayEnd;
+		}
+		return busy;
+	}
+
+	/** Drops the days before the one holding {@code slot}. */
+	public synchronized void clearBefore(long slot) {
+		long firstDay = Math.floorDiv(slot, slotsPerDay);
+		days.keySet().removeIf(day -> day < firstDay);
+	}
+
+	public synchronized void clear() {
+		days.clear();
+	}
+
+	private static boolean isEmpty(long[] words) {
+		for (long word : words) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -14,6 +14,8 @@ public class MessageConstants {
 
 	public static final String BOOKING_CANCELLED = "cancelled";
 
+	public static final String BOOKING_CONFLICT = "facility is being booked by someone else, please try again";
+
 	public static final String FACILITY_STATUS_SUCCESS = "Your facility is created.";
 
 	public static final String FACILITY_STATUS_FAILED = "Your facility creation has failed";
@@ -36,4 +38,10 @@ public class MessageConstants {
 	
 	public static final String RESIDENT_NOT_FOUND = "resident not found";
 
+	public static final String RATE_LIMITED = "too many requests, please retry later";
+
+	public static final String PASSWORD_HASHING_BUSY = "too many sign-ins at the moment, please retry shortly";
+
+	public static final String PICTURE_NOT_FOUND = "picture not found";
+
 }
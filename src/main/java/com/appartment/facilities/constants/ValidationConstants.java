@@ -14,11 +14,39 @@ public class ValidationConstants {
 	
 	public static final String INVALID_RESIDENT_FOR_BOOKING = "resident doesn't exist for specified id";
 
-	public static final String FACILITY_ALREADY_OCCUPIED = "facility already occupied";
+	public static final String INVALID_EVENT_DATE = "please provide a valid event date";
+	
+	public static final String INVALID_EVENT_END_DATE = "event end date must be after the event date";
+
+	public static final String SLOT_ALREADY_BOOKED = "facility already booked for the requested time slot";
+
+	public static final String EMPTY_BOOKING_BATCH = "please provide at least one booking";
+
+	public static final String BOOKING_BATCH_TOO_LARGE = "too many bookings in one request, the maximum is ";
+
+	public static final String INVALID_PAGE_SIZE = "page size must be between 1 and ";
+
+	public static final String INVALID_FIELDS = "fields must be a comma separated list of ";
+
+	public static final String INVALID_EXPORT_FORMAT = "export format must be ndjson or csv";
+
+	public static final String INVALID_AVAILABILITY_RANGE = "please provide a from and a to date, with to after from";
+
+	public static final String AVAILABILITY_RANGE_TOO_LONG = "availability can be requested for at most this many days: ";
 	
 	public static final String USERNAME_EXISTS = "Username already exists.please choose another username.";
 	
 	public static final String USER_APPROVAL_PENDING = "Your signup is pending for approval, kindly contact Facilities Manager";
 
+	public static final String INVALID_CREDENTIALS = "Incorrect username or password";
+
+	public static final String INVALID_ACCESS_TOKEN = "Access token is invalid";
+
+	public static final String INVALID_REFRESH_TOKEN = "Refresh token is invalid or expired, please log in again";
+
+	public static final String INVALID_PICTURE = "picture must be a PNG, JPEG, GIF or WebP image, the url of an uploaded picture or an http(s) url";
+
+	public static final String PICTURE_TOO_LARGE = "picture is too large, the maximum size in bytes is ";
+
 	
 }
@@ -1,61 +1,44 @@
 package com.appartment.facilities.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.appartment.facilities.constants.ValidationConstants;
-import com.appartment.facilities.entity.User;
 import com.appartment.facilities.exception.LoginException;
-import com.appartment.facilities.repository.UserRepository;
 import com.appartment.facilities.security.classes.AuthenticationRequest;
 import com.appartment.facilities.security.classes.AuthenticationResponse;
-import com.appartment.facilities.security.classes.CustomUserDetailsService;
-import com.appartment.facilities.security.config.JwtUtil;
+import com.appartment.facilities.security.classes.RefreshTokenRequest;
+import com.appartment.facilities.service.UserService;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
 	@Autowired
-	private AuthenticationManager authenticationManager;
-
-	@Autowired
-	private JwtUtil jwtUtil;
-
-	@Autowired
-	UserRepository userRepository;
-
-	@Autowired
-	private CustomUserDetailsService userDetailsService;
+	private UserService userService;
 
 	@PostMapping("/login")
-	public ResponseEntity<?> createAuthenticationToken(@RequestBody AuthenticationRequest authenticationRequest)
-			throws LoginException, Exception {
-		
-		final User user = userRepository.findByUserName(authenticationRequest.getUsername());
-		if (user.getStatus().equals(ValidationConstants.USER_APPROVAL_PENDING)) {
-			throw new LoginException(ValidationConstants.USER_APPROVAL_PENDING);
-		}
-
-		try {
-			Authentication auth = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
-					authenticationRequest.getUsername(), authenticationRequest.getPassword()));
-		} catch (AuthenticationException e) {
-			throw new Exception("Incorrect username or password", e);
-		}
+	public ResponseEntity<AuthenticationResponse> createAuthenticationToken(
+			@RequestBody AuthenticationRequest authenticationRequest) throws LoginException {
+		return ResponseEntity.ok(userService.login(authenticationRequest));
+	}
 
-		final UserDetails userDetails = userDetailsService.loadUserByUsername(authenticationRequest.getUsername());
-		final String jwt = jwtUtil.generateToken(userDetails.getUsername());
+	@PostMapping("/refresh")
+	public ResponseEntity<AuthenticationResponse> refreshAuthenticationToken(
+			@RequestBody RefreshTokenRequest refreshTokenRequest) throws LoginException {
+		return ResponseEntity.ok(userService.refresh(refreshTokenRequest));
+	}
 
-		return ResponseEntity.ok(new AuthenticationResponse(jwt));
+	@PostMapping("/logout")
+	public ResponseEntity<String> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorizationHeader,
+			@RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) throws LoginException {
+		String accessToken = authorizationHeader.startsWith("Bearer ") ? authorizationHeader.substring(7)
+				: authorizationHeader;
+		return ResponseEntity.ok(userService.logout(accessToken, refreshTokenRequest));
 	}
 }
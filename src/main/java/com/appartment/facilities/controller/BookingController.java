@@ -1,7 +1,11 @@
 package com.appartment.facilities.controller;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,11 +13,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.appartment.facilities.dto.BookingDto;
+import com.appartment.facilities.dto.BookingExportFormat;
+import com.appartment.facilities.dto.BookingFilterDto;
 import com.appartment.facilities.exception.BookingException;
 import com.appartment.facilities.service.BookingService;
+import com.appartment.facilities.versioning.AggregateVersions;
+import com.appartment.facilities.versioning.AggregateVersions.Aggregate;
 
 @RestController
 @RequestMapping("/v1/booking")
@@ -22,19 +33,53 @@ public class BookingController {
 	@Autowired
 	BookingService bookingService;
 
+	@Autowired
+	AggregateVersions aggregateVersions;
+
 	@PostMapping("/create")
 	public ResponseEntity<?> createBooking(@RequestBody BookingDto bookingDto) throws BookingException {
 		return new ResponseEntity<>(bookingService.createBooking(bookingDto), HttpStatus.CREATED);
 	}
 
+	@PostMapping("/batch")
+	public ResponseEntity<?> createBookings(@RequestBody List<BookingDto> bookingDtos) throws BookingException {
+		return new ResponseEntity<>(bookingService.createBookings(bookingDtos), HttpStatus.OK);
+	}
+
 	@GetMapping
-	public ResponseEntity<?> getAllBookings() {
-		return new ResponseEntity<>(bookingService.getAllBooking(), HttpStatus.OK);
+	public ResponseEntity<?> getBookings(BookingFilterDto filter, @RequestParam(required = false) Integer after,
+			@RequestParam(required = false) Integer size) throws BookingException {
+		// without a cursor or a size the response keeps the original array shape
+		if (after == null && size == null) {
+			return new ResponseEntity<>(bookingService.getAllBooking(filter), HttpStatus.OK);
+		}
+		return new ResponseEntity<>(bookingService.getBookings(filter, after, size), HttpStatus.OK);
+	}
+
+	@GetMapping("/calendar")
+	public ResponseEntity<?> getCalendar(BookingFilterDto filter, @RequestParam(required = false) Integer after,
+			@RequestParam(required = false) Integer size) throws BookingException {
+		return new ResponseEntity<>(bookingService.getCalendar(filter, after, size), HttpStatus.OK);
+	}
+
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(defaultValue = "ndjson") String format)
+			throws BookingException {
+		// resolved before streaming starts, an unknown format can still be answered with a 400
+		BookingExportFormat exportFormat = BookingExportFormat.of(format);
+		StreamingResponseBody body = outputStream -> bookingService.exportBookings(exportFormat, outputStream);
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=bookings." + exportFormat.getExtension())
+				.body(body);
 	}
 
 	@GetMapping("/byid/{id}")
-	public ResponseEntity<?> getBookingById(@PathVariable int id) throws BookingException {
-		return new ResponseEntity<>(bookingService.getBookingById(id), HttpStatus.OK);
+	public ResponseEntity<?> getBookingById(@PathVariable int id, WebRequest request) throws BookingException {
+		String etag = aggregateVersions.etag(Aggregate.BOOKINGS, id);
+		if (ConditionalGet.notModified(request, etag)) {
+			return null;
+		}
+		return ConditionalGet.ok(etag, bookingService.getBookingById(id));
 
 	}
 
@@ -0,0 +1,39 @@
+package com.appartment.facilities.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET for polled endpoints. The ETag comes from
+ * {@link com.appartment.facilities.versioning.AggregateVersions}, so a
+ * matching If-None-Match is answered with 304 before the service runs.
+ */
+final class ConditionalGet {
+
+    // private: the payload depends on the caller, no-cache: revalidate on every poll
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * True when the client already has this version; the 304 has then been
+     * prepared and the handler should return null.
+     */
+    static boolean notModified(WebRequest request, String etag) {
+        if (!request.checkNotModified(etag)) {
+            return false;
+        }
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+        }
+        return true;
+    }
+
+    static <T> ResponseEntity<T> ok(String etag, T body) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL).body(body);
+    }
+}
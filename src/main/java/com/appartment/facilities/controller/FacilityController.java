@@ -1,8 +1,11 @@
 package com.appartment.facilities.controller;
 
+import java.util.Date;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,12 +15,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.appartment.facilities.dto.CreateFacilityResponseDto;
 import com.appartment.facilities.dto.FacilityDto;
+import com.appartment.facilities.dto.FacilityPageDto;
 import com.appartment.facilities.exception.FacilityException;
 import com.appartment.facilities.service.FacilityService;
+import com.appartment.facilities.versioning.AggregateVersions;
+import com.appartment.facilities.versioning.AggregateVersions.Aggregate;
 
 @RestController
 @RequestMapping("/v1/facility")
@@ -26,6 +34,9 @@ public class FacilityController {
     @Autowired
     private FacilityService facilityService;
 
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
     @PostMapping
     public ResponseEntity<?> createFacility(@RequestBody FacilityDto facilityDto) throws FacilityException {
         CreateFacilityResponseDto response = facilityService.createFacility(facilityDto);
@@ -44,16 +55,35 @@ public class FacilityController {
         return new ResponseEntity<>(message, HttpStatus.OK);
     }
 
+    /**
+     * Every facility when called without parameters. With {@code fields},
+     * {@code after} or {@code size} it returns a page holding only the
+     * requested fields, see {@link FacilityPageDto}.
+     */
     @GetMapping("/getall")
-    public ResponseEntity<?> getAllFacilities() {
+    public ResponseEntity<?> getAllFacilities(@RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) Integer after, @RequestParam(required = false) Integer size,
+            WebRequest request) throws FacilityException {
+        String etag = aggregateVersions.etag(Aggregate.FACILITIES);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        if (fields != null || after != null || size != null) {
+            FacilityPageDto page = facilityService.getFacilities(fields, after, size);
+            return ConditionalGet.ok(etag, page);
+        }
         List<FacilityDto> facilities = facilityService.getAllFacility();
-        return new ResponseEntity<>(facilities, HttpStatus.OK);
+        return ConditionalGet.ok(etag, facilities);
     }
 
     @GetMapping("/byid/{id}")
-    public ResponseEntity<?> getFacilityById(@PathVariable int id) throws FacilityException {
+    public ResponseEntity<?> getFacilityById(@PathVariable int id, WebRequest request) throws FacilityException {
+        String etag = aggregateVersions.etag(Aggregate.FACILITIES, id);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
         FacilityDto facilityDto = facilityService.getFacilityById(id);
-        return new ResponseEntity<>(facilityDto, HttpStatus.OK);
+        return ConditionalGet.ok(etag, facilityDto);
     }
     
     @PutMapping("/status/{id}")
@@ -61,4 +91,12 @@ public class FacilityController {
     	String message=facilityService.changeStatusToAvailable(id);
     	return new ResponseEntity<>(message,HttpStatus.OK);
     }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<?> getAvailability(@PathVariable int id,
+            @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd") Date from,
+            @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd") Date to)
+            throws FacilityException {
+        return new ResponseEntity<>(facilityService.getAvailability(id, from, to), HttpStatus.OK);
+    }
 }
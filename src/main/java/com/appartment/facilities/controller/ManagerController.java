@@ -10,12 +10,18 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.appartment.facilities.dto.CreateManagerResponseDto;
 import com.appartment.facilities.dto.ManagerDto;
+import com.appartment.facilities.exception.LoginException;
 import com.appartment.facilities.exception.ManagerException;
 import com.appartment.facilities.exception.ResidentException;
+import com.appartment.facilities.security.classes.TokenRevocationRequest;
 import com.appartment.facilities.service.ManagerService;
+import com.appartment.facilities.service.UserService;
+import com.appartment.facilities.versioning.AggregateVersions;
+import com.appartment.facilities.versioning.AggregateVersions.Aggregate;
 
 @RestController
 @RequestMapping("/v1/manager")
@@ -24,6 +30,12 @@ public class ManagerController {
     @Autowired
     private ManagerService managerService;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
     @PostMapping("/register")
     public ResponseEntity<?> createManager(@RequestBody ManagerDto managerDto) throws ManagerException {
         CreateManagerResponseDto response = managerService.createManager(managerDto);
@@ -37,13 +49,29 @@ public class ManagerController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getManager() {
+    public ResponseEntity<?> getManager(WebRequest request) {
+        String etag = aggregateVersions.etag(Aggregate.USERS);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
         ManagerDto managerDto = managerService.getManager();
-        return new ResponseEntity<>(managerDto, HttpStatus.OK);
+        return ConditionalGet.ok(etag, managerDto);
     }
     @PutMapping("/approve-signup/{username}")
     public ResponseEntity<?> approveSignUp(@PathVariable String username) throws ResidentException{
     	String message= managerService.approveSignUp(username);
     	return new ResponseEntity<>(message,HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/revoke/{username}")
+    public ResponseEntity<?> revokeUserTokens(@PathVariable String username) throws ResidentException {
+        String message = managerService.revokeUserTokens(username);
+        return new ResponseEntity<>(message, HttpStatus.OK);
+    }
+
+    @PostMapping("/revoke-token")
+    public ResponseEntity<?> revokeToken(@RequestBody TokenRevocationRequest request) throws LoginException {
+        String message = userService.revokeAccessToken(request.getToken());
+        return new ResponseEntity<>(message, HttpStatus.OK);
+    }
+}
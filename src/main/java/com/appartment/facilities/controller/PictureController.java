@@ -0,0 +1,200 @@
+package com.appartment.facilities.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.appartment.facilities.constants.MessageConstants;
+import com.appartment.facilities.dto.PictureDto;
+import com.appartment.facilities.exception.PictureException;
+import com.appartment.facilities.storage.PictureDerivatives;
+import com.appartment.facilities.storage.PictureDerivatives.Size;
+import com.appartment.facilities.storage.PictureStore;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/v1/pictures")
+public class PictureController {
+
+    // stored pictures never change, the id in the URL is their content hash
+    private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+
+    // the original stands in for a derivative that is still being produced
+    private static final String CACHE_CONTROL_PENDING = "private, no-cache";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    @Autowired
+    private PictureStore pictureStore;
+
+    @Autowired
+    private PictureDerivatives pictureDerivatives;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadPicture(@RequestParam("file") MultipartFile file) throws PictureException, IOException {
+        String id;
+        try (InputStream content = file.getInputStream()) {
+            id = pictureStore.store(content);
+        }
+        String url = PictureStore.toUrl(id);
+        return ResponseEntity.created(URI.create(url)).body(new PictureDto(id, url));
+    }
+
+    /**
+     * Serves a single byte range or the whole file. Under Tomcat the bytes go
+     * out through sendfile, elsewhere through {@link FileChannel#transferTo};
+     * neither copies them through the heap.
+     */
+    @GetMapping("/{id}")
+    public void downloadPicture(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path picture = pictureStore.find(id);
+        if (picture == null) {
+            notFound(response);
+            return;
+        }
+        serve(picture, pictureStore.contentType(picture), "\"" + id + "\"", CACHE_CONTROL, request, response);
+    }
+
+    /**
+     * Serves a resized copy of a picture. Until it has been produced the
+     * original is served instead, marked for revalidation so the client
+     * picks up the derivative once it exists.
+     */
+    @GetMapping("/{id}/{size}")
+    public void downloadPictureDerivative(@PathVariable String id, @PathVariable String size,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Size derivativeSize = Size.fromPathSegment(size);
+        Path picture = derivativeSize != null ? pictureStore.find(id) : null;
+        if (picture == null) {
+            notFound(response);
+            return;
+        }
+        Path derivative = pictureDerivatives.find(id, derivativeSize);
+        if (derivative != null) {
+            try {
+                serve(derivative, PictureDerivatives.contentType(derivative), "\"" + id + "-" + size + "\"",
+                        CACHE_CONTROL, request, response);
+                return;
+            } catch (NoSuchFileException e) {
+                // evicted between the lookup and the read
+                pictureDerivatives.generate(id);
+            }
+        }
+        serve(picture, pictureStore.contentType(picture), "\"" + id + "\"", CACHE_CONTROL_PENDING, request, response);
+    }
+
+    private void serve(Path picture, MediaType contentType, String etag, String cacheControl,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(picture, StandardOpenOption.READ)) {
+            long length = channel.size();
+            long start = 0;
+            long end = length - 1;
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (range != null && (ifRange == null || ifRange.equals(etag))) {
+                long[] bounds = parseRange(range, length);
+                if (bounds == UNSATISFIABLE) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                if (bounds != null) {
+                    start = bounds[0];
+                    end = bounds[1];
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            }
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(end - start + 1);
+            if ("HEAD".equals(request.getMethod())) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, picture.toFile().getCanonicalPath());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    private static void notFound(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.NOT_FOUND.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getOutputStream().write(MessageConstants.PICTURE_NOT_FOUND.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The inclusive bounds of a single range, null to serve the whole file
+     * (no usable range, or several ranges), or {@link #UNSATISFIABLE}.
+     */
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[] { Math.max(0, length - suffix), length - 1 };
+            }
+            long start = Long.parseLong(spec.substring(0, dash));
+            long end = dash == spec.length() - 1 ? length - 1 : Long.parseLong(spec.substring(dash + 1));
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            return end < start ? null : new long[] { start, Math.min(end, length - 1) };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
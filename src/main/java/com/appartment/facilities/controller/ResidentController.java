@@ -12,12 +12,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.appartment.facilities.dto.CreateResidentResponseDto;
 import com.appartment.facilities.dto.ResidentDto;
+import com.appartment.facilities.dto.ResidentPageDto;
+import com.appartment.facilities.dto.UsernameAvailabilityDto;
 import com.appartment.facilities.exception.ResidentException;
 import com.appartment.facilities.service.ResidentService;
+import com.appartment.facilities.versioning.AggregateVersions;
+import com.appartment.facilities.versioning.AggregateVersions.Aggregate;
 
 @RestController
 @RequestMapping("/v1/resident")
@@ -26,12 +32,22 @@ public class ResidentController {
     @Autowired
     ResidentService residentService;
 
+    @Autowired
+    AggregateVersions aggregateVersions;
+
     @PostMapping("/register")
     public ResponseEntity<?> createResident(@RequestBody ResidentDto residentDto) throws ResidentException {
         CreateResidentResponseDto response = residentService.createResident(residentDto);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @GetMapping("/register/check")
+    public ResponseEntity<?> checkUsername(@RequestParam String username) {
+        UsernameAvailabilityDto response = new UsernameAvailabilityDto(username,
+                residentService.isUsernameAvailable(username));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteResident(@PathVariable int id) throws ResidentException {
         String response = residentService.deleteResident(id);
@@ -45,14 +61,33 @@ public class ResidentController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getResidentById(@PathVariable int id) throws ResidentException {
+    public ResponseEntity<?> getResidentById(@PathVariable int id, WebRequest request) throws ResidentException {
+        String etag = aggregateVersions.etag(Aggregate.USERS, id);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
         ResidentDto residentDto = residentService.getResidentById(id);
-        return new ResponseEntity<>(residentDto, HttpStatus.OK);
+        return ConditionalGet.ok(etag, residentDto);
     }
 
+    /**
+     * Every resident when called without parameters. With {@code fields},
+     * {@code after} or {@code size} it returns a page holding only the
+     * requested fields, see {@link ResidentPageDto}.
+     */
     @GetMapping
-    public ResponseEntity<?> getAllResidents() {
+    public ResponseEntity<?> getAllResidents(@RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) Integer after, @RequestParam(required = false) Integer size,
+            WebRequest request) throws ResidentException {
+        String etag = aggregateVersions.etag(Aggregate.USERS);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        if (fields != null || after != null || size != null) {
+            ResidentPageDto page = residentService.getResidents(fields, after, size);
+            return ConditionalGet.ok(etag, page);
+        }
         List<ResidentDto> residents = residentService.getAllResident();
-        return new ResponseEntity<>(residents, HttpStatus.OK);
+        return ConditionalGet.ok(etag, residents);
     }
 }
@@ -0,0 +1,52 @@
+package com.appartment.facilities.db.migration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops the migration before V2_2 makes user_table.user_name unique when
+ * two users share a name. Schemas generated by ddl-auto never enforced
+ * uniqueness, and MySQL compares names case-insensitively, so names that
+ * differ only in case collide as well.
+ *
+ * Nothing is changed automatically, since only an operator can tell which
+ * account is the real one. To clean up, rename or delete all but one user
+ * of every reported name, together with its manager or resident row and
+ * its refresh tokens, then restart the application; Flyway runs this check
+ * again and continues with the unique index.
+ */
+@Component
+public class V2_1__Check_duplicate_user_names extends BaseJavaMigration {
+
+	// enough to start the cleanup, the query below lists all of them
+	private static final int REPORTED_NAMES = 20;
+
+	private static final String DUPLICATES = "select lower(user_name), count(*) from user_table"
+			+ " where user_name is not null group by lower(user_name) having count(*) > 1";
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		List<String> duplicates = new ArrayList<>();
+		int total = 0;
+		try (Statement statement = context.getConnection().createStatement();
+				ResultSet rows = statement.executeQuery(DUPLICATES)) {
+			while (rows.next()) {
+				if (total++ < REPORTED_NAMES) {
+					duplicates.add(rows.getString(1) + " (" + rows.getInt(2) + " users)");
+				}
+			}
+		}
+		if (total > 0) {
+			throw new FlywayException(total + " user names are shared by several users and must be made unique"
+					+ " before the unique index on user_table.user_name is created: " + String.join(", ", duplicates)
+					+ (total > REPORTED_NAMES ? ", ..." : "") + ". Find all of them with: " + DUPLICATES);
+		}
+	}
+}
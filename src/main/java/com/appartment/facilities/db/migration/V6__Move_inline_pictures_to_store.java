@@ -0,0 +1,68 @@
+package com.appartment.facilities.db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.appartment.facilities.exception.PictureException;
+import com.appartment.facilities.storage.PictureStore;
+
+/**
+ * Writes the inline base64 pictures of facilities and residents to the
+ * {@link PictureStore} and leaves only their id in the row. Values that are
+ * neither an inline image nor a URL are left untouched and logged; they are
+ * no longer exposed through the DTOs. Registered as a bean so that Flyway
+ * runs it with the configured store.
+ */
+@Component
+public class V6__Move_inline_pictures_to_store extends BaseJavaMigration {
+
+	private static final Logger log = LoggerFactory.getLogger(V6__Move_inline_pictures_to_store.class);
+
+	private static final int BATCH_SIZE = 100;
+
+	@Autowired
+	PictureStore pictureStore;
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		movePictures(context.getConnection(), "facility");
+		movePictures(context.getConnection(), "resident");
+	}
+
+	private void movePictures(Connection connection, String table) throws SQLException {
+		int moved = 0;
+		try (Statement select = connection.createStatement();
+				ResultSet rows = select.executeQuery("select id, picture from " + table + " where picture is not null");
+				PreparedStatement update = connection.prepareStatement("update " + table + " set picture = ? where id = ?")) {
+			while (rows.next()) {
+				String picture = rows.getString(2);
+				if (PictureStore.toUrl(picture) != null || picture.isBlank()) {
+					continue;
+				}
+				try {
+					update.setString(1, pictureStore.resolve(picture));
+					update.setInt(2, rows.getInt(1));
+					update.addBatch();
+				} catch (PictureException e) {
+					log.warn("Left the picture of {} {} in place, it is not an inline image", table, rows.getInt(1));
+					continue;
+				}
+				if (++moved % BATCH_SIZE == 0) {
+					update.executeBatch();
+				}
+			}
+			update.executeBatch();
+		}
+		log.info("Moved {} inline pictures of {} to the picture store", moved, table);
+	}
+}
@@ -0,0 +1,50 @@
+package com.appartment.facilities.dto;
+
+import java.util.Date;
+
+public class AvailabilitySlotDto {
+
+	private Date start;
+	private Date end;
+	private boolean busy;
+
+	public AvailabilitySlotDto() {
+
+	}
+
+	public AvailabilitySlotDto(Date start, Date end, boolean busy) {
+		this.start = start;
+		this.end = end;
+		this.busy = busy;
+	}
+
+	public Date getStart() {
+		return start;
+	}
+
+	public void setStart(Date start) {
+		this.start = start;
+	}
+
+	public Date getEnd() {
+		return end;
+	}
+
+	public void setEnd(Date end) {
+		this.end = end;
+	}
+
+	public boolean isBusy() {
+		return busy;
+	}
+
+	public void setBusy(boolean busy) {
+		this.busy = busy;
+	}
+
+	@Override
+	public String toString() {
+		return "AvailabilitySlotDto [start=" + start + ", end=" + end + ", busy=" + busy + "]";
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.appartment.facilities.dto;
+
+public class BatchBookingItemDto {
+
+	private int index;
+	private boolean success;
+	private String message;
+	private BookingDto bookingDto;
+
+	public BatchBookingItemDto() {
+
+	}
+
+	public BatchBookingItemDto(int index, boolean success, String message, BookingDto bookingDto) {
+		this.index = index;
+		this.success = success;
+		this.message = message;
+		this.bookingDto = bookingDto;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	public void setSuccess(boolean success) {
+		this.success = success;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	public BookingDto getBookingDto() {
+		return bookingDto;
+	}
+
+	public void setBookingDto(BookingDto bookingDto) {
+		this.bookingDto = bookingDto;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchBookingItemDto [index=" + index + ", success=" + success + ", message=" + message
+				+ ", bookingDto=" + bookingDto + "]";
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.appartment.facilities.dto;
+
+import java.util.List;
+
+public class BatchBookingResponseDto {
+
+	private int created;
+	private int failed;
+	private List<BatchBookingItemDto> results;
+
+	public int getCreated() {
+		return created;
+	}
+
+	public void setCreated(int created) {
+		this.created = created;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public void setFailed(int failed) {
+		this.failed = failed;
+	}
+
+	public List<BatchBookingItemDto> getResults() {
+		return results;
+	}
+
+	public void setResults(List<BatchBookingItemDto> results) {
+		this.results = results;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchBookingResponseDto [created=" + created + ", failed=" + failed + ", results=" + results + "]";
+	}
+
+}
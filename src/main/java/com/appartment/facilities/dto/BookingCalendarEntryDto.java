@@ -0,0 +1,114 @@
+package com.appartment.facilities.dto;
+
+import java.util.Date;
+
+public class BookingCalendarEntryDto {
+
+	private Integer id;
+	private Integer facilityId;
+	private String facilityName;
+	private Integer residentId;
+	private String residentName;
+	private String residentFlatNo;
+	private Date eventDate;
+	private Date eventEndDate;
+	private String status;
+
+	public BookingCalendarEntryDto() {
+
+	}
+
+	public BookingCalendarEntryDto(Integer id, Integer facilityId, String facilityName, Integer residentId,
+			String residentName, String residentFlatNo, Date eventDate, Date eventEndDate, String status) {
+		this.id = id;
+		this.facilityId = facilityId;
+		this.facilityName = facilityName;
+		this.residentId = residentId;
+		this.residentName = residentName;
+		this.residentFlatNo = residentFlatNo;
+		this.eventDate = eventDate;
+		this.eventEndDate = eventEndDate;
+		this.status = status;
+	}
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public Integer getFacilityId() {
+		return facilityId;
+	}
+
+	public void setFacilityId(Integer facilityId) {
+		this.facilityId = facilityId;
+	}
+
+	public String getFacilityName() {
+		return facilityName;
+	}
+
+	public void setFacilityName(String facilityName) {
+		this.facilityName = facilityName;
+	}
+
+	public Integer getResidentId() {
+		return residentId;
+	}
+
+	public void setResidentId(Integer residentId) {
+		this.residentId = residentId;
+	}
+
+	public String getResidentName() {
+		return residentName;
+	}
+
+	public void setResidentName(String residentName) {
+		this.residentName = residentName;
+	}
+
+	public String getResidentFlatNo() {
+		return residentFlatNo;
+	}
+
+	public void setResidentFlatNo(String residentFlatNo) {
+		this.residentFlatNo = residentFlatNo;
+	}
+
+	public Date getEventDate() {
+		return eventDate;
+	}
+
+	public void setEventDate(Date eventDate) {
+		this.eventDate = eventDate;
+	}
+
+	public Date getEventEndDate() {
+		return eventEndDate;
+	}
+
+	public void setEventEndDate(Date eventEndDate) {
+		this.eventEndDate = eventEndDate;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	@Override
+	public String toString() {
+		return "BookingCalendarEntryDto [id=" + id + ", facilityId=" + facilityId + ", facilityName=" + facilityName
+				+ ", residentId=" + residentId + ", residentName=" + residentName + ", residentFlatNo="
+				+ residentFlatNo + ", eventDate=" + eventDate + ", eventEndDate=" + eventEndDate + ", status="
+				+ status + "]";
+	}
+
+}
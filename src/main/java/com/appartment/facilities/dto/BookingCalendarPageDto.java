@@ -0,0 +1,41 @@
+package com.appartment.facilities.dto;
+
+import java.util.List;
+
+public class BookingCalendarPageDto {
+
+	private List<BookingCalendarEntryDto> entries;
+	private Integer nextCursor;
+
+	public BookingCalendarPageDto() {
+
+	}
+
+	public BookingCalendarPageDto(List<BookingCalendarEntryDto> entries, Integer nextCursor) {
+		this.entries = entries;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<BookingCalendarEntryDto> getEntries() {
+		return entries;
+	}
+
+	public void setEntries(List<BookingCalendarEntryDto> entries) {
+		this.entries = entries;
+	}
+
+	/** Id to pass as {@code after} for the next page, null on the last page. */
+	public Integer getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(Integer nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	@Override
+	public String toString() {
+		return "BookingCalendarPageDto [entries=" + entries + ", nextCursor=" + nextCursor + "]";
+	}
+
+}
@@ -8,6 +8,7 @@ public class BookingDto {
 	private Integer facilityId;
 	private Integer residentId;
 	private Date eventDate;
+	private Date eventEndDate;
 	private String status;
 
 	public BookingDto() {
@@ -65,6 +66,14 @@ public class BookingDto {
 		this.eventDate = eventDate;
 	}
 
+	public Date getEventEndDate() {
+		return eventEndDate;
+	}
+
+	public void setEventEndDate(Date eventEndDate) {
+		this.eventEndDate = eventEndDate;
+	}
+
 	public String getStatus() {
 		return status;
 	}
@@ -76,7 +85,8 @@ public class BookingDto {
 	@Override
 	public String toString() {
 		return "Booking [id=" + id + ", bookingDate=" + bookingDate + ", facilityId=" + facilityId + ", residentId="
-				+ residentId + ", eventDate=" + eventDate + ", status=" + status + "]";
+				+ residentId + ", eventDate=" + eventDate + ", eventEndDate=" + eventEndDate + ", status=" + status
+				+ "]";
 	}
 
 }
@@ -0,0 +1,35 @@
+package com.appartment.facilities.dto;
+
+import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.exception.BookingException;
+
+public enum BookingExportFormat {
+
+	NDJSON("application/x-ndjson", "ndjson"),
+	CSV("text/csv", "csv");
+
+	private final String contentType;
+	private final String extension;
+
+	BookingExportFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public static BookingExportFormat of(String name) throws BookingException {
+		for (BookingExportFormat format : values()) {
+			if (format.extension.equalsIgnoreCase(name)) {
+				return format;
+			}
+		}
+		throw new BookingException(ValidationConstants.INVALID_EXPORT_FORMAT);
+	}
+}
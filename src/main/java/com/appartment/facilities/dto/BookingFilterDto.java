@@ -0,0 +1,64 @@
+package com.appartment.facilities.dto;
+
+import java.util.Date;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+
+public class BookingFilterDto {
+
+	private String status;
+	private Integer facilityId;
+	private Integer residentId;
+	@DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd")
+	private Date from;
+	@DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd")
+	private Date to;
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public Integer getFacilityId() {
+		return facilityId;
+	}
+
+	public void setFacilityId(Integer facilityId) {
+		this.facilityId = facilityId;
+	}
+
+	public Integer getResidentId() {
+		return residentId;
+	}
+
+	public void setResidentId(Integer residentId) {
+		this.residentId = residentId;
+	}
+
+	public Date getFrom() {
+		return from;
+	}
+
+	public void setFrom(Date from) {
+		this.from = from;
+	}
+
+	public Date getTo() {
+		return to;
+	}
+
+	public void setTo(Date to) {
+		this.to = to;
+	}
+
+	@Override
+	public String toString() {
+		return "BookingFilterDto [status=" + status + ", facilityId=" + facilityId + ", residentId=" + residentId
+				+ ", from=" + from + ", to=" + to + "]";
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.appartment.facilities.dto;
+
+import java.util.List;
+
+public class BookingPageDto {
+
+	private List<BookingDto> bookings;
+	private Integer nextCursor;
+
+	public BookingPageDto() {
+
+	}
+
+	public BookingPageDto(List<BookingDto> bookings, Integer nextCursor) {
+		this.bookings = bookings;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<BookingDto> getBookings() {
+		return bookings;
+	}
+
+	public void setBookings(List<BookingDto> bookings) {
+		this.bookings = bookings;
+	}
+
+	/** Id to pass as {@code after} for the next page, null on the last page. */
+	public Integer getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(Integer nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	@Override
+	public String toString() {
+		return "BookingPageDto [bookings=" + bookings + ", nextCursor=" + nextCursor + "]";
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.appartment.facilities.dto;
+
+import java.util.Date;
+import java.util.List;
+
+public class FacilityAvailabilityDto {
+
+	private int facilityId;
+	private Date from;
+	private Date to;
+	private long slotMinutes;
+	private List<AvailabilitySlotDto> slots;
+
+	public int getFacilityId() {
+		return facilityId;
+	}
+
+	public void setFacilityId(int facilityId) {
+		this.facilityId = facilityId;
+	}
+
+	public Date getFrom() {
+		return from;
+	}
+
+	public void setFrom(Date from) {
+		this.from = from;
+	}
+
+	public Date getTo() {
+		return to;
+	}
+
+	public void setTo(Date to) {
+		this.to = to;
+	}
+
+	public long getSlotMinutes() {
+		return slotMinutes;
+	}
+
+	public void setSlotMinutes(long slotMinutes) {
+		this.slotMinutes = slotMinutes;
+	}
+
+	/** Consecutive slots in the same state are merged into one range. */
+	public List<AvailabilitySlotDto> getSlots() {
+		return slots;
+	}
+
+	public void setSlots(List<AvailabilitySlotDto> slots) {
+		this.slots = slots;
+	}
+
+	@Override
+	public String toString() {
+		return "FacilityAvailabilityDto [facilityId=" + facilityId + ", from=" + from + ", to=" + to
+				+ ", slotMinutes=" + slotMinutes + ", slots=" + slots + "]";
+	}
+
+}
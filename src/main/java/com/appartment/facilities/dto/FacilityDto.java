@@ -6,6 +6,8 @@ public class FacilityDto {
 	private String status;
 	private String description;
 	private String picture;
+	private String pictureThumbnail;
+	private String pictureMedium;
 
 	public FacilityDto() {
 
@@ -60,9 +62,26 @@ public class FacilityDto {
 		this.picture = picture;
 	}
 
+	public String getPictureThumbnail() {
+		return pictureThumbnail;
+	}
+
+	public void setPictureThumbnail(String pictureThumbnail) {
+		this.pictureThumbnail = pictureThumbnail;
+	}
+
+	public String getPictureMedium() {
+		return pictureMedium;
+	}
+
+	public void setPictureMedium(String pictureMedium) {
+		this.pictureMedium = pictureMedium;
+	}
+
 	@Override
 	public String toString() {
 		return "Facility [id=" + id + ", name=" + name + ", status=" + status + ", description=" + description
-				+ ", picture=" + picture + "]";
+				+ ", picture=" + picture + ", pictureThumbnail=" + pictureThumbnail + ", pictureMedium=" + pictureMedium
+				+ "]";
 	}
 }
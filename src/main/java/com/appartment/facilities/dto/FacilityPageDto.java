@@ -0,0 +1,43 @@
+package com.appartment.facilities.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class FacilityPageDto {
+
+	private List<Map<String, Object>> facilities;
+	private Integer nextCursor;
+
+	public FacilityPageDto() {
+
+	}
+
+	public FacilityPageDto(List<Map<String, Object>> facilities, Integer nextCursor) {
+		this.facilities = facilities;
+		this.nextCursor = nextCursor;
+	}
+
+	/** One map per row, holding only the requested fields. */
+	public List<Map<String, Object>> getFacilities() {
+		return facilities;
+	}
+
+	public void setFacilities(List<Map<String, Object>> facilities) {
+		this.facilities = facilities;
+	}
+
+	/** Id to pass as {@code after} for the next page, null on the last page. */
+	public Integer getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(Integer nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	@Override
+	public String toString() {
+		return "FacilityPageDto [facilities=" + facilities + ", nextCursor=" + nextCursor + "]";
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.appartment.facilities.dto;
+
+public class PictureDto {
+
+	private String id;
+	private String url;
+
+	public PictureDto() {
+	}
+
+	public PictureDto(String id, String url) {
+		this.id = id;
+		this.url = url;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public void setUrl(String url) {
+		this.url = url;
+	}
+
+	@Override
+	public String toString() {
+		return "PictureDto [id=" + id + ", url=" + url + "]";
+	}
+
+}
@@ -7,6 +7,8 @@ public class ResidentDto extends UserDto{
     private String phone;
     private String email;
     private String picture;
+    private String pictureThumbnail;
+    private String pictureMedium;
     
     
     public ResidentDto(String userName, String password, String role, String status, String name, String flatNo, String flatType, String phone, String email, String picture) {
@@ -71,10 +73,27 @@ public class ResidentDto extends UserDto{
 		this.picture = picture;
 	}
 
+	public String getPictureThumbnail() {
+		return pictureThumbnail;
+	}
+
+	public void setPictureThumbnail(String pictureThumbnail) {
+		this.pictureThumbnail = pictureThumbnail;
+	}
+
+	public String getPictureMedium() {
+		return pictureMedium;
+	}
+
+	public void setPictureMedium(String pictureMedium) {
+		this.pictureMedium = pictureMedium;
+	}
+
 	@Override
 	public String toString() {
 		return "Manager [name=" + name + ", flatNo=" + flatNo + ", flatType=" + flatType + ", phone=" + phone
-				+ ", email=" + email + ", picture=" + picture + "]";
+				+ ", email=" + email + ", picture=" + picture + ", pictureThumbnail=" + pictureThumbnail
+				+ ", pictureMedium=" + pictureMedium + "]";
 	}
     
     
@@ -0,0 +1,43 @@
+package com.appartment.facilities.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class ResidentPageDto {
+
+	private List<Map<String, Object>> residents;
+	private Integer nextCursor;
+
+	public ResidentPageDto() {
+
+	}
+
+	public ResidentPageDto(List<Map<String, Object>> residents, Integer nextCursor) {
+		this.residents = residents;
+		this.nextCursor = nextCursor;
+	}
+
+	/** One map per row, holding only the requested fields. */
+	public List<Map<String, Object>> getResidents() {
+		return residents;
+	}
+
+	public void setResidents(List<Map<String, Object>> residents) {
+		this.residents = residents;
+	}
+
+	/** Id to pass as {@code after} for the next page, null on the last page. */
+	public Integer getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(Integer nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	@Override
+	public String toString() {
+		return "ResidentPageDto [residents=" + residents + ", nextCursor=" + nextCursor + "]";
+	}
+
+}
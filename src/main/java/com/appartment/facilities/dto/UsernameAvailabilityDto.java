@@ -0,0 +1,37 @@
+package com.appartment.facilities.dto;
+
+public class UsernameAvailabilityDto {
+
+	private String userName;
+	private boolean available;
+
+	public UsernameAvailabilityDto() {
+	}
+
+	public UsernameAvailabilityDto(String userName, boolean available) {
+		this.userName = userName;
+		this.available = available;
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	public void setUserName(String userName) {
+		this.userName = userName;
+	}
+
+	public boolean isAvailable() {
+		return available;
+	}
+
+	public void setAvailable(boolean available) {
+		this.available = available;
+	}
+
+	@Override
+	public String toString() {
+		return "UsernameAvailabilityDto [userName=" + userName + ", available=" + available + "]";
+	}
+
+}
@@ -2,21 +2,22 @@ package com.appartment.facilities.entity;
 
 import java.util.Date;
 
+import com.appartment.facilities.id.PooledId;
+
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 
 @Entity
 public class Booking {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@PooledId("booking_seq")
 	private Integer id;
 	private Date bookingDate;
 	private Integer facilityId;
 	private Integer residentId;
 	private Date eventDate;
+	private Date eventEndDate;
 	private String status;
 
 	public Booking() {
@@ -74,6 +75,14 @@ public class Booking {
 		this.eventDate = eventDate;
 	}
 
+	public Date getEventEndDate() {
+		return eventEndDate;
+	}
+
+	public void setEventEndDate(Date eventEndDate) {
+		this.eventEndDate = eventEndDate;
+	}
+
 	public String getStatus() {
 		return status;
 	}
@@ -85,7 +94,8 @@ public class Booking {
 	@Override
 	public String toString() {
 		return "Booking [id=" + id + ", bookingDate=" + bookingDate + ", facilityId=" + facilityId + ", residentId="
-				+ residentId + ", eventDate=" + eventDate + ", status=" + status + "]";
+				+ residentId + ", eventDate=" + eventDate + ", eventEndDate=" + eventEndDate + ", status=" + status
+				+ "]";
 	}
 
 }
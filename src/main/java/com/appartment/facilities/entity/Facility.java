@@ -1,20 +1,26 @@
 package com.appartment.facilities.entity;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.appartment.facilities.id.PooledId;
+
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 
 @Entity
 public class Facility {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@PooledId("facility_seq")
 	private Integer id;
 	private String name;
 	private String status;
 	private String description;
 	private String picture;
+	@Version
+	@ColumnDefault("0")
+	private Integer version;
 	
 	public Facility() {
 		
@@ -68,6 +74,14 @@ public class Facility {
 		this.picture = picture;
 	}
 
+	public Integer getVersion() {
+		return version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
 	@Override
 	public String toString() {
 		return "Facility [id=" + id + ", name=" + name + ", status=" + status + ", description=" + description
@@ -0,0 +1,131 @@
+package com.appartment.facilities.entity;
+
+import java.util.Date;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+
+@Entity
+public class RefreshToken implements Persistable<String> {
+
+	@Id
+	private String tokenHash;
+	private String familyId;
+	private String userName;
+	private String role;
+	private String status;
+	private int tokenVersion;
+	private Date expiresAt;
+	private Date usedAt;
+
+	// the id is assigned, so without this save() would select before every insert
+	@Transient
+	private boolean isNew = true;
+
+	public RefreshToken() {
+
+	}
+
+	public RefreshToken(String tokenHash, String familyId, String userName, String role, String status,
+			int tokenVersion, Date expiresAt) {
+		this.tokenHash = tokenHash;
+		this.familyId = familyId;
+		this.userName = userName;
+		this.role = role;
+		this.status = status;
+		this.tokenVersion = tokenVersion;
+		this.expiresAt = expiresAt;
+	}
+
+	@Override
+	public String getId() {
+		return tokenHash;
+	}
+
+	@Override
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		this.isNew = false;
+	}
+
+	public String getTokenHash() {
+		return tokenHash;
+	}
+
+	public void setTokenHash(String tokenHash) {
+		this.tokenHash = tokenHash;
+	}
+
+	public String getFamilyId() {
+		return familyId;
+	}
+
+	public void setFamilyId(String familyId) {
+		this.familyId = familyId;
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	public void setUserName(String userName) {
+		this.userName = userName;
+	}
+
+	public String getRole() {
+		return role;
+	}
+
+	public void setRole(String role) {
+		this.role = role;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public int getTokenVersion() {
+		return tokenVersion;
+	}
+
+	public void setTokenVersion(int tokenVersion) {
+		this.tokenVersion = tokenVersion;
+	}
+
+	public Date getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(Date expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+
+	public Date getUsedAt() {
+		return usedAt;
+	}
+
+	public void setUsedAt(Date usedAt) {
+		this.usedAt = usedAt;
+	}
+
+	@Override
+	public String toString() {
+		return "RefreshToken [familyId=" + familyId + ", userName=" + userName + ", role=" + role + ", status="
+				+ status + ", tokenVersion=" + tokenVersion + ", expiresAt=" + expiresAt + ", usedAt=" + usedAt + "]";
+	}
+
+}
@@ -1,8 +1,8 @@
 package com.appartment.facilities.entity;
 
+import com.appartment.facilities.id.PooledId;
+
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
@@ -12,7 +12,7 @@ import jakarta.persistence.InheritanceType;
 public class User {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@PooledId("user_table_seq")
 	private Integer id;
 	private String userName;
 	private String password;
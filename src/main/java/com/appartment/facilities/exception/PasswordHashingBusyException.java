@@ -0,0 +1,22 @@
+package com.appartment.facilities.exception;
+
+/**
+ * The password hashing executor is saturated. Unchecked because it is thrown
+ * through {@link org.springframework.security.crypto.password.PasswordEncoder}.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long retryAfterSeconds;
+
+	public PasswordHashingBusyException(String msg, long retryAfterSeconds) {
+		super(msg);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.appartment.facilities.exception;
+
+public class PictureException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	public PictureException(String msg) {
+		super(msg);
+	}
+
+}
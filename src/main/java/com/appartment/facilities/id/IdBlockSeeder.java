@@ -0,0 +1,66 @@
+package com.appartment.facilities.id;
+
+import java.sql.ResultSet;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Moves every per-entity sequence table past the ids already in use before
+ * the first insert. Covers rows written by the shared legacy
+ * {@code hibernate_sequence} and by the previous optimizer, whose stored
+ * value meant the end of a block rather than its start. The update only ever
+ * raises a value, so running it on every startup and on every node is safe.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdBlockSeeder {
+
+	private static final Logger log = LoggerFactory.getLogger(IdBlockSeeder.class);
+
+	private static final String LEGACY_SEQUENCE = "hibernate_sequence";
+
+	// sequence table -> entity table
+	private static final Map<String, String> SEQUENCES = Map.of("booking_seq", "booking", "facility_seq", "facility",
+			"user_table_seq", "user_table");
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@PostConstruct
+	public void seed() {
+		long legacyNext = tableExists(LEGACY_SEQUENCE) ? nextValueOf(LEGACY_SEQUENCE) : 0;
+		SEQUENCES.forEach((sequence, table) -> {
+			Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+			long floor = Math.max(maxId + 1, legacyNext);
+			if (jdbcTemplate.queryForObject("select count(*) from " + sequence, Long.class) == 0) {
+				jdbcTemplate.update("insert into " + sequence + " (next_val) values (?)", floor);
+			} else if (jdbcTemplate.update("update " + sequence + " set next_val = ? where next_val < ?", floor,
+					floor) > 0) {
+				log.info("Raised {} to {}", sequence, floor);
+			}
+		});
+	}
+
+	private long nextValueOf(String sequence) {
+		Long next = jdbcTemplate.queryForObject("select max(next_val) from " + sequence, Long.class);
+		return next == null ? 0 : next;
+	}
+
+	private boolean tableExists(String table) {
+		return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+			try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null, table,
+					new String[] { "TABLE" })) {
+				return tables.next();
+			}
+		});
+	}
+}
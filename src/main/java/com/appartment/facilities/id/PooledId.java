@@ -0,0 +1,23 @@
+package com.appartment.facilities.id;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates the id from a sequence table owned by the entity, handing out a
+ * block of ids per round trip. See {@link PooledIdGenerator}.
+ */
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RUNTIME)
+@Target({ FIELD, METHOD })
+public @interface PooledId {
+
+	/** Name of the sequence table, e.g. {@code booking_seq}. */
+	String value();
+}
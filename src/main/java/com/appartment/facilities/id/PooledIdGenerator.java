@@ -0,0 +1,48 @@
+package com.appartment.facilities.id;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Sequence style generator with a pooled-lo optimizer over a per-entity
+ * table. A node reserves a whole block of ids with one update of its own
+ * row, so inserts into different tables never contend on a shared sequence
+ * and only one in {@value #DEFAULT_BLOCK_SIZE} inserts pays for a round trip.
+ * The block size is read from {@value #BLOCK_SIZE_SETTING}.
+ */
+public class PooledIdGenerator extends SequenceStyleGenerator {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String BLOCK_SIZE_SETTING = "appartment.id.block_size";
+
+	public static final int DEFAULT_BLOCK_SIZE = 50;
+
+	private final String tableName;
+
+	public PooledIdGenerator(PooledId config, Member member, CustomIdGeneratorCreationContext context) {
+		this.tableName = config.value();
+	}
+
+	@Override
+	public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+		int blockSize = serviceRegistry.requireService(ConfigurationService.class).getSetting(BLOCK_SIZE_SETTING,
+				StandardConverters.INTEGER, DEFAULT_BLOCK_SIZE);
+
+		parameters.setProperty(SEQUENCE_PARAM, tableName);
+		parameters.setProperty(INCREMENT_PARAM, String.valueOf(blockSize));
+		parameters.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+		// same table layout on every database, which keeps IdBlockSeeder portable
+		parameters.setProperty(FORCE_TBL_PARAM, "true");
+		super.configure(type, parameters, serviceRegistry);
+	}
+}
@@ -0,0 +1,39 @@
+package com.appartment.facilities.instrumentation;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@Component
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+	private static final Logger log = LoggerFactory.getLogger(SqlStatementCountFilter.class);
+
+	@Value("${sql.statements.warn-threshold:10}")
+	private int warnThreshold;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		SqlStatementCounter.reset();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			int statements = SqlStatementCounter.current();
+			if (statements > warnThreshold) {
+				log.warn("{} {} ran {} SQL statements", request.getMethod(), request.getRequestURI(), statements);
+			} else {
+				log.debug("{} {} ran {} SQL statements", request.getMethod(), request.getRequestURI(), statements);
+			}
+		}
+	}
+}
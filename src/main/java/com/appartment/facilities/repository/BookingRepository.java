@@ -1,11 +1,57 @@
 package com.appartment.facilities.repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.appartment.facilities.dto.BookingCalendarEntryDto;
 import com.appartment.facilities.entity.Booking;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Integer>{
+public interface BookingRepository extends JpaRepository<Booking, Integer>, JpaSpecificationExecutor<Booking> {
+
+	// bookings still to come or in progress; legacy rows without an end last the default slot from their start
+	@Query("select b from Booking b where b.status not in :statuses "
+			+ "and (b.eventEndDate > :now or (b.eventEndDate is null and b.eventDate > :earliestStart))")
+	List<Booking> findActiveEndingAfter(@Param("statuses") Collection<String> statuses, @Param("now") Date now,
+			@Param("earliestStart") Date earliestStart);
+
+	@Query("select b from Booking b where b.facilityId = :facilityId and b.status not in :statuses "
+			+ "and (b.eventEndDate > :now or (b.eventEndDate is null and b.eventDate > :earliestStart))")
+	List<Booking> findActiveByFacilityIdEndingAfter(@Param("facilityId") Integer facilityId,
+			@Param("statuses") Collection<String> statuses, @Param("now") Date now,
+			@Param("earliestStart") Date earliestStart);
+
+	// forward-only and read-only; needs useCursorFetch on MySQL so the driver honours the fetch size
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<Booking> streamAllByOrderByIdAsc();
 
+	// bookings joined with the names a calendar shows, in one query; without a status only live bookings are listed
+	@Query("select new com.appartment.facilities.dto.BookingCalendarEntryDto(b.id, b.facilityId, f.name, b.residentId, "
+			+ "r.name, r.flatNo, b.eventDate, b.eventEndDate, b.status) "
+			+ "from Booking b left join Facility f on f.id = b.facilityId left join Resident r on r.id = b.residentId "
+			+ "where b.id > :after "
+			+ "and (:facilityId is null or b.facilityId = :facilityId) "
+			+ "and (:residentId is null or b.residentId = :residentId) "
+			+ "and (cast(:from as timestamp) is null or b.eventDate >= :from) "
+			+ "and (cast(:to as timestamp) is null or b.eventDate < :to) "
+			+ "and ((:status is null and b.status not in :releasedStatuses) or b.status = :status) "
+			+ "order by b.id")
+	List<BookingCalendarEntryDto> findCalendarEntries(@Param("after") int after, @Param("facilityId") Integer facilityId,
+			@Param("residentId") Integer residentId, @Param("from") Date from, @Param("to") Date to,
+			@Param("status") String status, @Param("releasedStatuses") Collection<String> releasedStatuses, Limit limit);
 }
@@ -0,0 +1,41 @@
+package com.appartment.facilities.repository;
+
+import java.util.Date;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.appartment.facilities.entity.Booking;
+
+/**
+ * Optional predicates for the booking listing. Each factory returns null for
+ * a missing value so the filters compose with {@link Specification#and}.
+ */
+public final class BookingSpecifications {
+
+	private BookingSpecifications() {
+	}
+
+	public static Specification<Booking> idAfter(Integer id) {
+		return id == null ? null : (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+	}
+
+	public static Specification<Booking> hasStatus(String status) {
+		return status == null || status.isBlank() ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+	}
+
+	public static Specification<Booking> forFacility(Integer facilityId) {
+		return facilityId == null ? null : (root, query, cb) -> cb.equal(root.get("facilityId"), facilityId);
+	}
+
+	public static Specification<Booking> forResident(Integer residentId) {
+		return residentId == null ? null : (root, query, cb) -> cb.equal(root.get("residentId"), residentId);
+	}
+
+	public static Specification<Booking> eventFrom(Date from) {
+		return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("eventDate"), from);
+	}
+
+	public static Specification<Booking> eventBefore(Date to) {
+		return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("eventDate"), to);
+	}
+}
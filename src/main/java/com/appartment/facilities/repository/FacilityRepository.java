@@ -1,6 +1,12 @@
 package com.appartment.facilities.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.appartment.facilities.entity.Facility;
@@ -8,4 +14,20 @@ import com.appartment.facilities.entity.Facility;
 @Repository
 public interface FacilityRepository extends JpaRepository<Facility, Integer>{
 
+	@Modifying
+	@Query("update Facility f set f.status = :status, f.version = f.version + 1 where f.id = :id and f.version = :version")
+	int updateStatusIfVersionMatches(@Param("id") Integer id, @Param("status") String status,
+			@Param("version") Integer version);
+
+	@Modifying
+	@Query("update Facility f set f.version = f.version + 1 where f.id = :id and f.version = :version")
+	int incrementVersionIfMatches(@Param("id") Integer id, @Param("version") Integer version);
+
+	@Query("select f.version from Facility f where f.id = :id")
+	Integer findVersionById(@Param("id") Integer id);
+
+	List<FacilityVersion> findVersionsByIdIn(Collection<Integer> ids);
+
+	@Query("select f.id as id, f.version as version from Facility f")
+	List<FacilityVersion> findAllVersions();
 }
@@ -0,0 +1,11 @@
+package com.appartment.facilities.repository;
+
+/**
+ * The version column of a facility, read without loading its row.
+ */
+public interface FacilityVersion {
+
+	Integer getId();
+
+	Integer getVersion();
+}
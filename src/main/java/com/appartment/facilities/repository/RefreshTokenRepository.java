@@ -0,0 +1,31 @@
+package com.appartment.facilities.repository;
+
+import java.util.Date;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.appartment.facilities.entity.RefreshToken;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+	@Modifying
+	@Transactional
+	@Query("update RefreshToken t set t.usedAt = :usedAt where t.tokenHash = :tokenHash and t.usedAt is null")
+	int markUsed(@Param("tokenHash") String tokenHash, @Param("usedAt") Date usedAt);
+
+	@Modifying
+	@Transactional
+	@Query("delete from RefreshToken t where t.familyId = :familyId")
+	int deleteFamily(@Param("familyId") String familyId);
+
+	@Modifying
+	@Transactional
+	@Query("delete from RefreshToken t where t.expiresAt < :now")
+	int deleteExpired(@Param("now") Date now);
+}
@@ -8,7 +8,7 @@ import org.springframework.stereotype.Repository;
 import com.appartment.facilities.entity.Resident;
 
 @Repository
-public interface ResidentRepository  extends JpaRepository<Resident, Integer>{
+public interface ResidentRepository  extends JpaRepository<Resident, Integer>, ResidentRepositoryCustom{
 
 	Optional<Resident> findByUserName(String userName);
 }
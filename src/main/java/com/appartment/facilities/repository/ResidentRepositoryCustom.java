@@ -0,0 +1,16 @@
+package com.appartment.facilities.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import jakarta.persistence.Tuple;
+
+public interface ResidentRepositoryCustom {
+
+	/**
+	 * Reads only the given attributes of the residents after the id cursor,
+	 * ordered by id. Each attribute is aliased by its name; id is always
+	 * selected.
+	 */
+	List<Tuple> findAttributes(Collection<String> attributes, Integer after, int limit);
+}
@@ -0,0 +1,44 @@
+package com.appartment.facilities.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.appartment.facilities.entity.Resident;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+public class ResidentRepositoryCustomImpl implements ResidentRepositoryCustom {
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Override
+	public List<Tuple> findAttributes(Collection<String> attributes, Integer after, int limit) {
+		Set<String> selected = new LinkedHashSet<>();
+		selected.add("id");
+		selected.addAll(attributes);
+
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+		Root<Resident> resident = query.from(Resident.class);
+		List<Selection<?>> selections = new ArrayList<>();
+		for (String attribute : selected) {
+			selections.add(resident.get(attribute).alias(attribute));
+		}
+		query.multiselect(selections);
+		if (after != null) {
+			query.where(criteriaBuilder.greaterThan(resident.get("id"), after));
+		}
+		query.orderBy(criteriaBuilder.asc(resident.get("id")));
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+}
@@ -0,0 +1,15 @@
+package com.appartment.facilities.repository;
+
+/**
+ * The columns login needs, read without materialising the user entity.
+ */
+public interface UserAuthProjection {
+
+	String getUserName();
+
+	String getPassword();
+
+	String getRole();
+
+	String getStatus();
+}
@@ -9,4 +9,8 @@ public interface UserRepository  extends JpaRepository<User, Integer>{
 
 	User findByUserName(String username);
 
+	UserAuthProjection findAuthByUserName(String username);
+
+	boolean existsByUserName(String username);
+
 }
@@ -7,31 +7,35 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import com.appartment.facilities.entity.User;
+import com.appartment.facilities.repository.UserAuthProjection;
 
 public class CustomUserDetails implements UserDetails {
     private static final long serialVersionUID = 1L;
     
-    private final User user;
+    private final String userName;
+    private final String password;
+    private final String role;
 
-    public CustomUserDetails(User user) {
-        this.user = user;
+    public CustomUserDetails(UserAuthProjection user) {
+        this.userName = user.getUserName();
+        this.password = user.getPassword();
+        this.role = user.getRole();
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         // Convert the single role string to a GrantedAuthority
-        return Collections.singletonList(new SimpleGrantedAuthority(user.getRole()));
+        return Collections.singletonList(new SimpleGrantedAuthority(role));
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getUserName();
+        return userName;
     }
 
     @Override
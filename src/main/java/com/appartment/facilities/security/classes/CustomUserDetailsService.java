@@ -6,7 +6,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import com.appartment.facilities.entity.User;
+import com.appartment.facilities.repository.UserAuthProjection;
 import com.appartment.facilities.repository.UserRepository;
 
 @Service
@@ -15,9 +15,18 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUserName(username);
+        // a missing user throws out of the loader and is not cached
+        return userDetailsCache.get(username, this::loadFromRepository);
+    }
+
+    private UserDetails loadFromRepository(String username) {
+        // reads user_table only, without the joins to the subclass tables
+        UserAuthProjection user = userRepository.findAuthByUserName(username);
         if (user == null) {
             throw new UsernameNotFoundException("User not found");
         }
@@ -0,0 +1,46 @@
+package com.appartment.facilities.security.classes;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.appartment.facilities.entity.RefreshToken;
+
+/**
+ * Map-backed {@link RefreshTokenStore} for tests and single-node experiments.
+ * Not a bean; the application uses {@link JpaRefreshTokenStore}.
+ */
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final ConcurrentMap<String, RefreshToken> tokens = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(RefreshToken refreshToken) {
+        tokens.put(refreshToken.getTokenHash(), refreshToken);
+    }
+
+    @Override
+    public Optional<RefreshToken> find(String tokenHash) {
+        return Optional.ofNullable(tokens.get(tokenHash));
+    }
+
+    @Override
+    public boolean markUsed(String tokenHash, Date usedAt) {
+        AtomicBoolean marked = new AtomicBoolean();
+        tokens.computeIfPresent(tokenHash, (hash, token) -> {
+            if (token.getUsedAt() == null) {
+                token.setUsedAt(usedAt);
+                marked.set(true);
+            }
+            return token;
+        });
+        return marked.get();
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        tokens.values().removeIf(token -> token.getFamilyId().equals(familyId));
+    }
+}
@@ -0,0 +1,43 @@
+package com.appartment.facilities.security.classes;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.appartment.facilities.entity.RefreshToken;
+import com.appartment.facilities.repository.RefreshTokenRepository;
+
+@Component
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    @Autowired
+    RefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    public void save(RefreshToken refreshToken) {
+        refreshTokenRepository.save(refreshToken);
+    }
+
+    @Override
+    public Optional<RefreshToken> find(String tokenHash) {
+        return refreshTokenRepository.findById(tokenHash);
+    }
+
+    @Override
+    public boolean markUsed(String tokenHash, Date usedAt) {
+        return refreshTokenRepository.markUsed(tokenHash, usedAt) == 1;
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        refreshTokenRepository.deleteFamily(familyId);
+    }
+
+    @Scheduled(fixedDelayString = "${security.refresh-token.purge-ms:3600000}")
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(new Date());
+    }
+}
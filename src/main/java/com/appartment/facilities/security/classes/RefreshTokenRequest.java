@@ -0,0 +1,19 @@
+package com.appartment.facilities.security.classes;
+
+public class RefreshTokenRequest {
+	private String refreshToken;
+
+	public String getRefreshToken() {
+		return refreshToken;
+	}
+
+	public void setRefreshToken(String refreshToken) {
+		this.refreshToken = refreshToken;
+	}
+
+	@Override
+	public String toString() {
+		return "RefreshTokenRequest [refreshToken=" + (refreshToken == null ? null : "***") + "]";
+	}
+
+}
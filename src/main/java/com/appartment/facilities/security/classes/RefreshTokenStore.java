@@ -0,0 +1,24 @@
+package com.appartment.facilities.security.classes;
+
+import java.util.Date;
+import java.util.Optional;
+
+import com.appartment.facilities.entity.RefreshToken;
+
+/**
+ * Storage of hashed refresh tokens. Lookups are by the token hash only.
+ */
+public interface RefreshTokenStore {
+
+    void save(RefreshToken refreshToken);
+
+    Optional<RefreshToken> find(String tokenHash);
+
+    /**
+     * Consumes the token. Returns false when it had already been used, so
+     * of two concurrent refreshes with the same token only one succeeds.
+     */
+    boolean markUsed(String tokenHash, Date usedAt);
+
+    void revokeFamily(String familyId);
+}
@@ -0,0 +1,77 @@
+package com.appartment.facilities.security.classes;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Ids of access tokens revoked before their expiry, checked on every
+ * request. A Bloom filter answers the common case, a token that was never
+ * revoked, without a map lookup or an allocation; only its rare positives
+ * reach the map. Entries are written to {@code revoked_token} so other
+ * nodes and restarts pick them up, and are dropped once the token has
+ * expired, at which point the filter is rebuilt.
+ */
+@Component
+public class TokenDenyList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final ConcurrentMap<String, Long> expiryByJti = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${security.deny-list.expected-entries:100000}")
+    private long expectedEntries = 100000;
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${security.deny-list.refresh-ms:30000}",
+            initialDelayString = "${security.deny-list.refresh-ms:30000}")
+    public void refresh() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.update("delete from revoked_token where expires_at < ?", now);
+        jdbcTemplate.query("select jti, expires_at from revoked_token",
+                (RowCallbackHandler) row -> expiryByJti.put(row.getString(1), row.getTimestamp(2).getTime()));
+        expiryByJti.values().removeIf(expiry -> expiry < now.getTime());
+        rebuild();
+    }
+
+    public boolean isDenied(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiry = expiryByJti.get(jti);
+        return expiry != null && expiry >= System.currentTimeMillis();
+    }
+
+    public void deny(String jti, Date expiresAt) {
+        Timestamp expiry = new Timestamp(expiresAt.getTime());
+        jdbcTemplate.update("insert into revoked_token (jti, expires_at) values (?, ?) "
+                + "on duplicate key update expires_at = ?", jti, expiry, expiry);
+        synchronized (this) {
+            expiryByJti.put(jti, expiresAt.getTime());
+            filter.put(jti);
+        }
+    }
+
+    // writers hold the lock so an entry added during the rebuild is not lost
+    private synchronized void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, 2L * expiryByJti.size()),
+                FALSE_POSITIVE_RATE);
+        expiryByJti.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+}
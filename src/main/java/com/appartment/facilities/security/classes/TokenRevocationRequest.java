@@ -0,0 +1,19 @@
+package com.appartment.facilities.security.classes;
+
+public class TokenRevocationRequest {
+	private String token;
+
+	public String getToken() {
+		return token;
+	}
+
+	public void setToken(String token) {
+		this.token = token;
+	}
+
+	@Override
+	public String toString() {
+		return "TokenRevocationRequest [token=" + (token == null ? null : "***") + "]";
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.appartment.facilities.security.classes;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Minimum accepted token version per user. Every token carries the version
+ * that was current when it was issued, and revoking a user raises the
+ * minimum so all of their earlier tokens are rejected without a database
+ * lookup per request. Only revoked users have an entry. The minimums are
+ * persisted in {@code user_token_version} so they survive a restart and are
+ * picked up by the other nodes on the next refresh.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final ConcurrentMap<String, Integer> minimumVersions = new ConcurrentHashMap<>();
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${security.token-version.refresh-ms:30000}",
+            initialDelayString = "${security.token-version.refresh-ms:30000}")
+    public void refresh() {
+        jdbcTemplate.query("select user_name, min_version from user_token_version",
+                (RowCallbackHandler) row -> minimumVersions.merge(row.getString(1), row.getInt(2), Math::max));
+    }
+
+    public int currentVersion(String username) {
+        return minimumVersions.getOrDefault(username, 0);
+    }
+
+    public boolean isCurrent(String username, int tokenVersion) {
+        return tokenVersion >= currentVersion(username);
+    }
+
+    public void revoke(String... usernames) {
+        for (String username : usernames) {
+            if (username != null) {
+                jdbcTemplate.update("insert into user_token_version (user_name, min_version) values (?, 1) "
+                        + "on duplicate key update min_version = min_version + 1", username);
+                Integer minimum = jdbcTemplate.queryForObject(
+                        "select min_version from user_token_version where user_name = ?", Integer.class, username);
+                minimumVersions.merge(username, minimum, Math::max);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.appartment.facilities.security.classes;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bloom filter of the user names in use, so an availability check for a
+ * free name never reaches the database. Names are folded to lower case
+ * because the MySQL collation compares them case-insensitively; a possible
+ * hit is confirmed against the database. The filter only speeds up the
+ * check: names taken on another node since the last rebuild read as free,
+ * and the unique index on user_table.user_name still decides at insert.
+ */
+@Component
+public class UsernameIndex {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private static final String UNIQUE_INDEX = "uk_user_table_user_name";
+
+    private volatile BloomFilter filter;
+
+    // names added while a rebuild reads the table, guarded by this
+    private Set<String> addedDuringRebuild;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${security.username-index.expected-entries:100000}")
+    private long expectedEntries = 100000;
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${security.username-index.refresh-ms:300000}",
+            initialDelayString = "${security.username-index.refresh-ms:300000}")
+    public void rebuild() {
+        synchronized (this) {
+            addedDuringRebuild = new HashSet<>();
+        }
+        try {
+            Long users = jdbcTemplate.queryForObject("select count(*) from user_table", Long.class);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, 2 * users), FALSE_POSITIVE_RATE);
+            jdbcTemplate.query("select user_name from user_table where user_name is not null",
+                    (RowCallbackHandler) row -> rebuilt.put(normalize(row.getString(1))));
+            // writers hold the lock so a name added during the scan is not lost
+            synchronized (this) {
+                addedDuringRebuild.forEach(rebuilt::put);
+                filter = rebuilt;
+            }
+        } finally {
+            synchronized (this) {
+                addedDuringRebuild = null;
+            }
+        }
+    }
+
+    /**
+     * False for a null or blank name, which no user can have.
+     */
+    public boolean mightExist(String userName) {
+        if (userName == null || userName.isBlank()) {
+            return false;
+        }
+        return filter.mightContain(normalize(userName));
+    }
+
+    public synchronized void add(String userName) {
+        if (userName == null || userName.isBlank()) {
+            return;
+        }
+        String normalized = normalize(userName);
+        filter.put(normalized);
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(normalized);
+        }
+    }
+
+    /**
+     * Whether the failed write collided with an existing user name.
+     */
+    public static boolean isDuplicateUserName(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(UNIQUE_INDEX);
+    }
+
+    private static String normalize(String userName) {
+        return userName.toLowerCase(Locale.ROOT);
+    }
+}
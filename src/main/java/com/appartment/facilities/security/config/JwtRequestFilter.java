@@ -1,16 +1,25 @@
 package com.appartment.facilities.security.config;
 
 import java.io.IOException;
+import java.util.Collections;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.security.classes.TokenDenyList;
+import com.appartment.facilities.security.classes.TokenVersionRegistry;
+import com.appartment.facilities.security.classes.VerifiedTokenCache;
+
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -26,28 +35,38 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                claims = verifiedTokenCache.get(jwt, jwtUtil::extractAllClaims);
             } catch (ExpiredJwtException e) {
                 System.out.println("JWT token is expired");
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (claims != null && claims.getSubject() != null && !tokenDenyList.isDenied(claims.getId())
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = claims.containsKey(JwtUtil.ROLE_CLAIM) ? fromClaims(claims)
+                    : this.userDetailsService.loadUserByUsername(claims.getSubject());
 
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 usernamePasswordAuthenticationToken
@@ -57,4 +76,17 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
+
+    // tokens issued before the role claim existed still go through the user lookup above
+    private UserDetails fromClaims(Claims claims) {
+        String username = claims.getSubject();
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        Integer tokenVersion = claims.get(JwtUtil.VERSION_CLAIM, Integer.class);
+
+        if (role == null || tokenVersion == null || !tokenVersionRegistry.isCurrent(username, tokenVersion)
+                || ValidationConstants.USER_APPROVAL_PENDING.equals(claims.get(JwtUtil.STATUS_CLAIM, String.class))) {
+            return null;
+        }
+        return new User(username, "", Collections.singletonList(new SimpleGrantedAuthority(role)));
+    }
 }
@@ -1,64 +1,58 @@
 package com.appartment.facilities.security.config;
 
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 
 @Component
 public class JwtUtil {
-    private String secret = "mySecretKey";
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    public static final String ROLE_CLAIM = "role";
+    public static final String STATUS_CLAIM = "status";
+    public static final String VERSION_CLAIM = "ver";
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+    private String secret = "mySecretKey";
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
+    // short lived, clients renew through a refresh token instead of logging in again
+    @Value("${security.jwt.access-ttl:15m}")
+    private Duration accessTokenTtl = Duration.ofMinutes(15);
 
-    private Claims extractAllClaims(String token) {
+    // verifies the signature and the expiry, callers keep the claims rather than parse again
+    public Claims extractAllClaims(String token) {
         return Jwts.parser()
                 .setSigningKey(secret.getBytes()) // Use the key to validate the signature
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    public String generateToken(String username) {
+    // role and status let the request filter authenticate without loading the user
+    public String generateToken(String username, String role, String status, int tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLE_CLAIM, role);
+        claims.put(STATUS_CLAIM, status);
+        claims.put(VERSION_CLAIM, tokenVersion);
         return createToken(claims, username);
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString()) // lets a single token be revoked
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTokenTtl.toMillis()))
                 .signWith(SignatureAlgorithm.HS256, secret.getBytes())
                 .compact();
     }
-
-    public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
-    }
 }
 
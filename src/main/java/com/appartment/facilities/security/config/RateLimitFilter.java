@@ -0,0 +1,115 @@
+package com.appartment.facilities.security.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.appartment.facilities.constants.MessageConstants;
+import com.appartment.facilities.security.classes.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for the expensive routes configured under
+ * {@code rate-limit.routes}. Each route has a token bucket per client
+ * address and, once {@link JwtRequestFilter} has authenticated the request,
+ * per user. Buckets are evicted after sitting idle and the number kept is
+ * bounded. Rejections answer 429 with Retry-After and are counted as
+ * {@code http.rate_limited{route,scope}}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String REJECTIONS_METRIC = "http.rate_limited";
+
+    private final List<LimitedRoute> routes = new ArrayList<>();
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleEviction())
+                .build();
+        for (Map.Entry<String, RateLimitProperties.Route> route : properties.getRoutes().entrySet()) {
+            routes.add(new LimitedRoute(route.getKey(), route.getValue()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        for (LimitedRoute route : routes) {
+            if (!route.matcher.matches(request)) {
+                continue;
+            }
+            RateLimitProperties.Route limits = route.limits;
+            long now = System.nanoTime();
+            long wait = acquire(route.name, "ip", request.getRemoteAddr(), limits.getIpCapacity(),
+                    limits.getIpRefillPerMinute(), now);
+
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (wait == 0 && authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                wait = acquire(route.name, "user", authentication.getName(), limits.getUserCapacity(),
+                        limits.getUserRefillPerMinute(), now);
+            }
+            if (wait > 0) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999))));
+                response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                response.getWriter().write(MessageConstants.RATE_LIMITED);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private long acquire(String route, String scope, String key, int capacity, int refillPerMinute, long now) {
+        if (capacity <= 0 || refillPerMinute <= 0 || key == null) {
+            return 0;
+        }
+        TokenBucket bucket = buckets.get(route + ':' + scope + ':' + key,
+                k -> new TokenBucket(capacity, refillPerMinute, now));
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0) {
+            meterRegistry.counter(REJECTIONS_METRIC, "route", route, "scope", scope).increment();
+        }
+        return wait;
+    }
+
+    private static final class LimitedRoute {
+        private final String name;
+        private final RateLimitProperties.Route limits;
+        private final AntPathRequestMatcher matcher;
+
+        private LimitedRoute(String name, RateLimitProperties.Route limits) {
+            this.name = name;
+            this.limits = limits;
+            this.matcher = new AntPathRequestMatcher(limits.getPath(), limits.getMethod());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.appartment.facilities.security.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-route token bucket limits, bound from {@code rate-limit.*}. A route
+ * limits by client address, by authenticated user or both; a capacity of 0
+ * turns that limit off.
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private long maxBuckets = 100000;
+
+    private Duration idleEviction = Duration.ofMinutes(10);
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    public long getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(long maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public Duration getIdleEviction() {
+        return idleEviction;
+    }
+
+    public void setIdleEviction(Duration idleEviction) {
+        this.idleEviction = idleEviction;
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    public static class Route {
+
+        private String path;
+
+        // null limits every method on the path
+        private String method;
+
+        private int ipCapacity;
+
+        private int ipRefillPerMinute;
+
+        private int userCapacity;
+
+        private int userRefillPerMinute;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public int getIpCapacity() {
+            return ipCapacity;
+        }
+
+        public void setIpCapacity(int ipCapacity) {
+            this.ipCapacity = ipCapacity;
+        }
+
+        public int getIpRefillPerMinute() {
+            return ipRefillPerMinute;
+        }
+
+        public void setIpRefillPerMinute(int ipRefillPerMinute) {
+            this.ipRefillPerMinute = ipRefillPerMinute;
+        }
+
+        public int getUserCapacity() {
+            return userCapacity;
+        }
+
+        public void setUserCapacity(int userCapacity) {
+            this.userCapacity = userCapacity;
+        }
+
+        public int getUserRefillPerMinute() {
+            return userRefillPerMinute;
+        }
+
+        public void setUserRefillPerMinute(int userRefillPerMinute) {
+            this.userRefillPerMinute = userRefillPerMinute;
+        }
+
+        @Override
+        public String toString() {
+            return "Route [path=" + path + ", method=" + method + ", ipCapacity=" + ipCapacity + ", ipRefillPerMinute=" + ipRefillPerMinute
+                    + ", userCapacity=" + userCapacity + ", userRefillPerMinute=" + userRefillPerMinute + "]";
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.appartment.facilities.security.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -13,8 +15,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.appartment.facilities.security.classes.BoundedPasswordEncoder;
 import com.appartment.facilities.security.classes.CustomUserDetailsService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -22,16 +28,20 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
     private final JwtRequestFilter jwtRequestFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(CustomUserDetailsService userDetailsService, JwtRequestFilter jwtRequestFilter) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, JwtRequestFilter jwtRequestFilter,
+            RateLimitFilter rateLimitFilter) {
         this.userDetailsService = userDetailsService;
         this.jwtRequestFilter = jwtRequestFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf().disable()
             .authorizeHttpRequests()
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // streamed responses, already authorized on the request
             .requestMatchers("/auth/**").permitAll() // Permit all access to authentication endpoints
             .requestMatchers("/v1/manager/register/**").permitAll() 
             .requestMatchers("/v1/resident/register/**").permitAll()
@@ -39,22 +49,37 @@ public class SecurityConfig {
             .requestMatchers("/v1/resident/**").hasAnyAuthority("Manager","Resident")
             .requestMatchers("/v1/facility/getall/**").hasAnyAuthority("Manager","Resident")
             .requestMatchers("/v1/facility/byid/**").hasAnyAuthority("Manager","Resident")
+            .requestMatchers("/v1/facility/*/availability").hasAnyAuthority("Manager","Resident")
             .requestMatchers("/v1/facility/**").hasAuthority("Manager")
             .requestMatchers("/v1/booking/create/**").hasAnyAuthority("Manager","Resident")
             .requestMatchers("/v1/booking/byid/**").hasAnyAuthority("Manager","Resident")
             .requestMatchers("/v1/booking/cancel/**").hasAnyAuthority("Manager","Resident")
+            .requestMatchers("/v1/booking/calendar/**").hasAnyAuthority("Manager","Resident")
             .requestMatchers("/v1/booking/**").hasAuthority("Manager")
+            .requestMatchers(HttpMethod.GET, "/v1/pictures/**").hasAnyAuthority("Manager","Resident")
+            .requestMatchers(HttpMethod.HEAD, "/v1/pictures/**").hasAnyAuthority("Manager","Resident")
+            // residents attach their own profile picture, managers attach facility and resident pictures
+            .requestMatchers(HttpMethod.POST, "/v1/pictures").hasAnyAuthority("Manager","Resident")
+            .requestMatchers("/v1/pictures/**").denyAll()
             .anyRequest().authenticated()
             .and()
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        // after the JWT filter so per-user limits know the user
+        http.addFilterAfter(rateLimitFilter, JwtRequestFilter.class);
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        // BCrypt is pure CPU, so more threads than cores only adds latency
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity, retryAfterSeconds,
+                meterRegistry);
     }
 
     @Bean
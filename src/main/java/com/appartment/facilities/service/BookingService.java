@@ -1,10 +1,17 @@
 package com.appartment.facilities.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.appartment.facilities.dto.BatchBookingResponseDto;
+import com.appartment.facilities.dto.BookingCalendarPageDto;
 import com.appartment.facilities.dto.BookingDto;
+import com.appartment.facilities.dto.BookingExportFormat;
+import com.appartment.facilities.dto.BookingFilterDto;
+import com.appartment.facilities.dto.BookingPageDto;
 import com.appartment.facilities.dto.CreateBookingResponseDto;
 import com.appartment.facilities.exception.BookingException;
 
@@ -12,7 +19,11 @@ import com.appartment.facilities.exception.BookingException;
 public interface BookingService {
 	
 	CreateBookingResponseDto createBooking(BookingDto bookingDto) throws BookingException;
-	List<BookingDto> getAllBooking();
+	BatchBookingResponseDto createBookings(List<BookingDto> bookingDtos) throws BookingException;
+	List<BookingDto> getAllBooking(BookingFilterDto filter);
+	BookingPageDto getBookings(BookingFilterDto filter, Integer after, Integer size) throws BookingException;
+	BookingCalendarPageDto getCalendar(BookingFilterDto filter, Integer after, Integer size) throws BookingException;
+	void exportBookings(BookingExportFormat format, OutputStream outputStream) throws IOException;
 	String approveOrRejectBooking(int bookingId,boolean isApproved) throws BookingException;
 	BookingDto getBookingById(int bookingId) throws BookingException;
 	BookingDto cancelBooking(int bookingId) throws BookingException;
@@ -1,11 +1,14 @@
 package com.appartment.facilities.service;
 
+import java.util.Date;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
 
 import com.appartment.facilities.dto.CreateFacilityResponseDto;
+import com.appartment.facilities.dto.FacilityAvailabilityDto;
 import com.appartment.facilities.dto.FacilityDto;
+import com.appartment.facilities.dto.FacilityPageDto;
 import com.appartment.facilities.exception.FacilityException;
 
 @Service
@@ -15,6 +18,8 @@ public interface FacilityService {
 	String updateFacility(FacilityDto facilityDto,int id) throws FacilityException;
 	String deleteFacility(int id) throws FacilityException;
 	List<FacilityDto> getAllFacility();
+	FacilityPageDto getFacilities(List<String> fields, Integer after, Integer size) throws FacilityException;
 	FacilityDto getFacilityById(int id) throws FacilityException;
 	String changeStatusToAvailable(int id) throws FacilityException;
+	FacilityAvailabilityDto getAvailability(int id, Date from, Date to) throws FacilityException;
 }
@@ -13,4 +13,5 @@ public interface ManagerService {
 	String updateManager(ManagerDto managerDto,int managerId) throws ManagerException;
 	ManagerDto getManager();
 	String approveSignUp(String userName) throws ResidentException;
+	String revokeUserTokens(String userName) throws ResidentException;
 }
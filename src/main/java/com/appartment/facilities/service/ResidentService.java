@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 
 import com.appartment.facilities.dto.CreateResidentResponseDto;
 import com.appartment.facilities.dto.ResidentDto;
+import com.appartment.facilities.dto.ResidentPageDto;
 import com.appartment.facilities.exception.ResidentException;
 
 @Service
@@ -15,4 +16,6 @@ public interface ResidentService {
 	String UpdateResident(ResidentDto residentDto,int residentId) throws ResidentException;
 	ResidentDto getResidentById(int residentId) throws ResidentException;
 	List<ResidentDto> getAllResident();
+	ResidentPageDto getResidents(List<String> fields, Integer after, Integer size) throws ResidentException;
+	boolean isUsernameAvailable(String userName);
 }
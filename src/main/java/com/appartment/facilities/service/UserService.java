@@ -2,7 +2,20 @@ package com.appartment.facilities.service;
 
 import org.springframework.stereotype.Service;
 
+import com.appartment.facilities.exception.LoginException;
+import com.appartment.facilities.security.classes.AuthenticationRequest;
+import com.appartment.facilities.security.classes.AuthenticationResponse;
+import com.appartment.facilities.security.classes.RefreshTokenRequest;
+
 @Service
 public interface UserService {
 
+	AuthenticationResponse login(AuthenticationRequest authenticationRequest) throws LoginException;
+
+	AuthenticationResponse refresh(RefreshTokenRequest refreshTokenRequest) throws LoginException;
+
+	String logout(String accessToken, RefreshTokenRequest refreshTokenRequest) throws LoginException;
+
+	String revokeAccessToken(String accessToken) throws LoginException;
+
 }
@@ -1,27 +1,79 @@
 package com.appartment.facilities.service.impl;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.appartment.facilities.availability.BookingAvailabilityIndex;
+import com.appartment.facilities.availability.FacilityCatalogue;
+import com.appartment.facilities.availability.FacilityLockRegistry;
 import com.appartment.facilities.constants.MessageConstants;
 import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.dto.BatchBookingItemDto;
+import com.appartment.facilities.dto.BatchBookingResponseDto;
+import com.appartment.facilities.dto.BookingCalendarEntryDto;
+import com.appartment.facilities.dto.BookingCalendarPageDto;
 import com.appartment.facilities.dto.BookingDto;
+import com.appartment.facilities.dto.BookingExportFormat;
+import com.appartment.facilities.dto.BookingFilterDto;
+import com.appartment.facilities.dto.BookingPageDto;
 import com.appartment.facilities.dto.CreateBookingResponseDto;
 import com.appartment.facilities.entity.Booking;
 import com.appartment.facilities.entity.Facility;
+import com.appartment.facilities.entity.Resident;
 import com.appartment.facilities.exception.BookingException;
 import com.appartment.facilities.repository.BookingRepository;
+import com.appartment.facilities.repository.BookingSpecifications;
 import com.appartment.facilities.repository.FacilityRepository;
+import com.appartment.facilities.repository.FacilityVersion;
 import com.appartment.facilities.repository.ResidentRepository;
 import com.appartment.facilities.service.BookingService;
+import com.appartment.facilities.versioning.AggregateVersions;
+import com.appartment.facilities.versioning.AggregateVersions.Aggregate;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class BookingServiceImpl implements BookingService {
 
+	private static final String CSV_HEADER = "id,bookingDate,facilityId,residentId,eventDate,eventEndDate,status\n";
+
 	@Autowired
 	BookingRepository bookingRepository;
 	
@@ -31,6 +83,39 @@ public class BookingServiceImpl implements BookingService {
 	@Autowired
 	FacilityRepository facilityRepository;
 
+	@Autowired
+	BookingAvailabilityIndex availabilityIndex;
+
+	@Autowired
+	FacilityLockRegistry facilityLockRegistry;
+
+	@Autowired
+	FacilityCatalogue facilityCatalogue;
+
+	@Autowired
+	AggregateVersions aggregateVersions;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Value("${booking.admission.max-attempts:3}")
+	private int maxAdmissionAttempts = 3;
+
+	@Value("${booking.batch.max-size:500}")
+	private int maxBatchSize = 500;
+
+	@Value("${booking.page.default-size:50}")
+	private int defaultPageSize = 50;
+
+	@Value("${booking.page.max-size:200}")
+	private int maxPageSize = 200;
+
 	@Override
 	public CreateBookingResponseDto createBooking(BookingDto bookingDto) throws BookingException {
 
@@ -39,19 +124,14 @@ public class BookingServiceImpl implements BookingService {
 
 		if (booking != null) {
 			
-			if(validateBooking(booking)) {
-				
-				booking.setStatus("Pending");
-				Booking bookingEntity = bookingRepository.save(booking);
-				Facility facility= facilityRepository.findById(bookingEntity.getFacilityId()).get();
-				facility.setStatus("Occupied");
-				facilityRepository.save(facility);
-				
-				bookingDto.setStatus(booking.getStatus());
-				createBookingResponseDto.setBookingDto(bookingDto);
-				createBookingResponseDto.getBookingDto().setId(bookingEntity.getId());
-				createBookingResponseDto.setMessage(MessageConstants.BOOKING_STATUS_SUCCESS);
-			}
+			validateBooking(booking);
+			Booking bookingEntity = admitBooking(booking);
+
+			bookingDto.setStatus(booking.getStatus());
+			bookingDto.setEventEndDate(booking.getEventEndDate());
+			createBookingResponseDto.setBookingDto(bookingDto);
+			createBookingResponseDto.getBookingDto().setId(bookingEntity.getId());
+			createBookingResponseDto.setMessage(MessageConstants.BOOKING_STATUS_SUCCESS);
 			
 		} else {
 			createBookingResponseDto.setMessage(MessageConstants.BOOKING_STATUS_FAILED);
@@ -60,13 +140,405 @@ public class BookingServiceImpl implements BookingService {
 		return createBookingResponseDto;
 	}
 
+	/**
+	 * Serialises admission per facility inside this JVM and relies on the
+	 * Facility version to detect writers on other nodes. The version is read
+	 * under the lock, and the facility's slots are reloaded from the database
+	 * only when the index has not seen that version, that is when another
+	 * node has written since. A version conflict re-reads just the version.
+	 */
+	private Booking admitBooking(Booking booking) throws BookingException {
+		int facilityId = booking.getFacilityId();
+		Lock lock = facilityLockRegistry.lockFor(facilityId);
+		lock.lock();
+		try {
+			TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+			Integer version = facilityRepository.findVersionById(facilityId);
+			for (int attempt = 1;; attempt++) {
+				if (version == null) {
+					throw new BookingException(ValidationConstants.INVALID_FACILITY_FOR_BOOKING);
+				}
+				if (!availabilityIndex.isCurrent(facilityId, version)) {
+					availabilityIndex.reload(facilityId, version, activeBookingsOf(facilityId));
+				}
+				if (!availabilityIndex.isAvailable(facilityId, booking.getEventDate(), booking.getEventEndDate())) {
+					throw new BookingException(ValidationConstants.SLOT_ALREADY_BOOKED);
+				}
+				try {
+					int expectedVersion = version;
+					Booking bookingEntity = transactionTemplate
+							.execute(status -> persistBooking(booking, facilityId, expectedVersion));
+					availabilityIndex.reserve(facilityId, bookingEntity.getId(), booking.getEventDate(),
+							booking.getEventEndDate());
+					availabilityIndex.setVersion(facilityId, expectedVersion + 1);
+					facilityCatalogue.updateStatus(List.of(facilityId), "Occupied");
+					aggregateVersions.bump(Aggregate.BOOKINGS, Aggregate.FACILITIES);
+					return bookingEntity;
+				} catch (OptimisticLockingFailureException e) {
+					if (attempt >= maxAdmissionAttempts) {
+						throw new BookingException(MessageConstants.BOOKING_CONFLICT);
+					}
+					booking.setId(null);
+					version = facilityRepository.findVersionById(facilityId);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Booking persistBooking(Booking booking, int facilityId, int version) {
+		// a single versioned update instead of reloading and merging the facility
+		if (facilityRepository.updateStatusIfVersionMatches(facilityId, "Occupied", version) == 0) {
+			throw new ObjectOptimisticLockingFailureException(Facility.class, facilityId);
+		}
+
+		booking.setStatus("Pending");
+		return bookingRepository.save(booking);
+	}
+
+	@Override
+	public BatchBookingResponseDto createBookings(List<BookingDto> bookingDtos) throws BookingException {
+
+		if (bookingDtos == null || bookingDtos.isEmpty()) {
+			throw new BookingException(ValidationConstants.EMPTY_BOOKING_BATCH);
+		}
+		if (bookingDtos.size() > maxBatchSize) {
+			throw new BookingException(ValidationConstants.BOOKING_BATCH_TOO_LARGE + maxBatchSize);
+		}
+
+		// one lookup per table for the whole batch instead of one per booking,
+		// the facilities are looked up once they are locked
+		Set<Integer> residentIds = new TreeSet<>();
+		for (BookingDto bookingDto : bookingDtos) {
+			if (bookingDto != null && bookingDto.getResidentId() != null) {
+				residentIds.add(bookingDto.getResidentId());
+			}
+		}
+		Set<Integer> knownResidentIds = residentRepository.findAllById(residentIds).stream().map(Resident::getId)
+				.collect(Collectors.toSet());
+
+		List<BatchBookingItemDto> results = new ArrayList<>(Collections.nCopies(bookingDtos.size(), null));
+		Map<Integer, Booking> candidates = new LinkedHashMap<>();
+		for (int index = 0; index < bookingDtos.size(); index++) {
+			try {
+				candidates.put(index, validateBatchItem(bookingDtos.get(index), knownResidentIds));
+			} catch (BookingException e) {
+				results.set(index, new BatchBookingItemDto(index, false, e.getMessage(), bookingDtos.get(index)));
+			}
+		}
+
+		if (!candidates.isEmpty()) {
+			admitBatch(bookingDtos, candidates, results);
+		}
+
+		BatchBookingResponseDto batchBookingResponseDto = new BatchBookingResponseDto();
+		for (Map.Entry<Integer, Booking> candidate : candidates.entrySet()) {
+			BatchBookingItemDto result = results.get(candidate.getKey());
+			if (result.isSuccess()) {
+				BookingDto bookingDto = result.getBookingDto();
+				bookingDto.setId(candidate.getValue().getId());
+				bookingDto.setStatus(candidate.getValue().getStatus());
+				bookingDto.setEventEndDate(candidate.getValue().getEventEndDate());
+			}
+		}
+		batchBookingResponseDto.setResults(results);
+		batchBookingResponseDto.setCreated((int) results.stream().filter(BatchBookingItemDto::isSuccess).count());
+		batchBookingResponseDto.setFailed(results.size() - batchBookingResponseDto.getCreated());
+		return batchBookingResponseDto;
+	}
+
+	/**
+	 * Admits a batch the same way as a single booking: the facilities are
+	 * locked in ascending id order so overlapping batches cannot deadlock,
+	 * their versions are read in one query, the slots are reserved under a
+	 * placeholder id, and every touched facility gets one versioned update
+	 * before the bookings are inserted together.
+	 */
+	private void admitBatch(List<BookingDto> bookingDtos, Map<Integer, Booking> candidates,
+			List<BatchBookingItemDto> results) {
+		Set<Integer> facilityIds = candidates.values().stream().map(Booking::getFacilityId)
+				.collect(Collectors.toCollection(TreeSet::new));
+		List<Lock> locks = new ArrayList<>();
+		try {
+			for (Integer facilityId : facilityIds) {
+				Lock lock = facilityLockRegistry.lockFor(facilityId);
+				lock.lock();
+				locks.add(lock);
+			}
+			TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+			Map<Integer, Integer> versions = refreshBatchFacilities(bookingDtos, candidates, results);
+			for (int attempt = 1;; attempt++) {
+				Map<Integer, Booking> admitted = reserveBatchSlots(bookingDtos, candidates, results);
+				if (admitted.isEmpty()) {
+					return;
+				}
+				try {
+					Map<Integer, Integer> expectedVersions = versions;
+					transactionTemplate.execute(status -> persistBookings(admitted.values(), expectedVersions));
+				} catch (OptimisticLockingFailureException e) {
+					releaseBatchSlots(admitted);
+					if (attempt >= maxAdmissionAttempts) {
+						for (Integer index : admitted.keySet()) {
+							results.get(index).setSuccess(false);
+							results.get(index).setMessage(MessageConstants.BOOKING_CONFLICT);
+						}
+						return;
+					}
+					admitted.values().forEach(booking -> booking.setId(null));
+					versions = refreshBatchFacilities(bookingDtos, candidates, results);
+					continue;
+				} catch (RuntimeException e) {
+					releaseBatchSlots(admitted);
+					throw e;
+				}
+				for (Map.Entry<Integer, Booking> entry : admitted.entrySet()) {
+					Booking booking = entry.getValue();
+					availabilityIndex.release(booking.getFacilityId(), placeholderId(entry.getKey()), booking.getEventDate());
+					availabilityIndex.reserve(booking.getFacilityId(), booking.getId(), booking.getEventDate(),
+							booking.getEventEndDate());
+				}
+				Set<Integer> written = admitted.values().stream().map(Booking::getFacilityId)
+						.collect(Collectors.toSet());
+				for (Integer facilityId : written) {
+					availabilityIndex.setVersion(facilityId, versions.get(facilityId) + 1);
+				}
+				facilityCatalogue.updateStatus(written, "Occupied");
+				aggregateVersions.bump(Aggregate.BOOKINGS, Aggregate.FACILITIES);
+				return;
+			}
+		} finally {
+			for (int i = locks.size() - 1; i >= 0; i--) {
+				locks.get(i).unlock();
+			}
+		}
+	}
+
+	private Map<Integer, Booking> reserveBatchSlots(List<BookingDto> bookingDtos, Map<Integer, Booking> candidates,
+			List<BatchBookingItemDto> results) {
+		Map<Integer, Booking> admitted = new LinkedHashMap<>();
+		for (Map.Entry<Integer, Booking> candidate : candidates.entrySet()) {
+			int index = candidate.getKey();
+			Booking booking = candidate.getValue();
+			// also rejects a booking overlapping an earlier one of the same batch
+			if (availabilityIndex.reserve(booking.getFacilityId(), placeholderId(index), booking.getEventDate(),
+					booking.getEventEndDate())) {
+				admitted.put(index, booking);
+				results.set(index, new BatchBookingItemDto(index, true, MessageConstants.BOOKING_STATUS_SUCCESS,
+						bookingDtos.get(index)));
+			} else {
+				results.set(index, new BatchBookingItemDto(index, false, ValidationConstants.SLOT_ALREADY_BOOKED,
+						bookingDtos.get(index)));
+			}
+		}
+		return admitted;
+	}
+
+	private List<Booking> activeBookingsOf(int facilityId) {
+		Date now = new Date();
+		return bookingRepository.findActiveByFacilityIdEndingAfter(facilityId, BookingAvailabilityIndex.RELEASED_STATUSES,
+				now, availabilityIndex.earliestActiveStart(now));
+	}
+
+	private void releaseBatchSlots(Map<Integer, Booking> admitted) {
+		for (Map.Entry<Integer, Booking> entry : admitted.entrySet()) {
+			Booking booking = entry.getValue();
+			availabilityIndex.release(booking.getFacilityId(), placeholderId(entry.getKey()), booking.getEventDate());
+		}
+	}
+
+	/**
+	 * Reads the versions of the locked facilities, drops the candidates of a
+	 * facility that does not exist and reloads the slots of the facilities
+	 * another node has written since the index last saw them.
+	 */
+	private Map<Integer, Integer> refreshBatchFacilities(List<BookingDto> bookingDtos, Map<Integer, Booking> candidates,
+			List<BatchBookingItemDto> results) {
+		Set<Integer> facilityIds = candidates.values().stream().map(Booking::getFacilityId)
+				.collect(Collectors.toCollection(TreeSet::new));
+		Map<Integer, Integer> versions = new HashMap<>();
+		for (FacilityVersion facility : facilityRepository.findVersionsByIdIn(facilityIds)) {
+			if (facility.getVersion() != null) {
+				versions.put(facility.getId(), facility.getVersion());
+			}
+		}
+		for (Map.Entry<Integer, Integer> version : versions.entrySet()) {
+			if (!availabilityIndex.isCurrent(version.getKey(), version.getValue())) {
+				availabilityIndex.reload(version.getKey(), version.getValue(), activeBookingsOf(version.getKey()));
+			}
+		}
+		Iterator<Map.Entry<Integer, Booking>> iterator = candidates.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Integer, Booking> candidate = iterator.next();
+			if (!versions.containsKey(candidate.getValue().getFacilityId())) {
+				int index = candidate.getKey();
+				results.set(index, new BatchBookingItemDto(index, false, ValidationConstants.INVALID_FACILITY_FOR_BOOKING,
+						bookingDtos.get(index)));
+				iterator.remove();
+			}
+		}
+		return versions;
+	}
+
+	private List<Booking> persistBookings(Collection<Booking> bookings, Map<Integer, Integer> versions) {
+		Set<Integer> facilityIds = bookings.stream().map(Booking::getFacilityId)
+				.collect(Collectors.toCollection(TreeSet::new));
+		for (Integer facilityId : facilityIds) {
+			if (facilityRepository.updateStatusIfVersionMatches(facilityId, "Occupied", versions.get(facilityId)) == 0) {
+				throw new ObjectOptimisticLockingFailureException(Facility.class, facilityId);
+			}
+		}
+
+		bookings.forEach(booking -> booking.setStatus("Pending"));
+		// inserted as JDBC batches, see hibernate.jdbc.batch_size
+		return bookingRepository.saveAll(bookings);
+	}
+
+	// batch slots are held under a negative id until the bookings have real ids
+	private static int placeholderId(int index) {
+		return -(index + 1);
+	}
+
+	/**
+	 * The legacy listing: every matching booking in one array, ordered by id.
+	 */
+	@Override
+	public List<BookingDto> getAllBooking(BookingFilterDto filter) {
+		return bookingRepository.findAll(filterSpecification(filter, null), Sort.by("id")).stream()
+				.map(booking -> mapToBookingDto(booking)).collect(Collectors.toList());
+	}
+
+	/**
+	 * Keyset pagination on id, no count query is issued. With no filter or an
+	 * equality filter the page after a cursor is an index range scan whatever
+	 * its depth. An event date range is read through its own index and sorted
+	 * by id, so its cost grows with the number of bookings in the range.
+	 */
 	@Override
-	public List<BookingDto> getAllBooking() {
-		return bookingRepository.findAll().stream().map(booking -> mapToBookingDto(booking))
+	public BookingPageDto getBookings(BookingFilterDto filter, Integer after, Integer size) throws BookingException {
+		int pageSize = resolvePageSize(size);
+		// one extra row tells whether there is a next page
+		List<Booking> bookings = bookingRepository.findBy(filterSpecification(filter, after),
+				query -> query.sortBy(Sort.by("id")).limit(pageSize + 1).all());
+
+		boolean hasNext = bookings.size() > pageSize;
+		List<BookingDto> page = bookings.stream().limit(pageSize).map(booking -> mapToBookingDto(booking))
 				.collect(Collectors.toList());
+		return new BookingPageDto(page, hasNext ? page.get(page.size() - 1).getId() : null);
+	}
+
+	private static Specification<Booking> filterSpecification(BookingFilterDto filter, Integer after) {
+		if (filter == null) {
+			filter = new BookingFilterDto();
+		}
+		return Specification.where(BookingSpecifications.idAfter(after))
+				.and(BookingSpecifications.hasStatus(filter.getStatus()))
+				.and(BookingSpecifications.forFacility(filter.getFacilityId()))
+				.and(BookingSpecifications.forResident(filter.getResidentId()))
+				.and(BookingSpecifications.eventFrom(filter.getFrom()))
+				.and(BookingSpecifications.eventBefore(filter.getTo()));
 	}
 
 	@Override
+	public BookingCalendarPageDto getCalendar(BookingFilterDto filter, Integer after, Integer size)
+			throws BookingException {
+		int pageSize = resolvePageSize(size);
+		if (filter == null) {
+			filter = new BookingFilterDto();
+		}
+		String status = filter.getStatus() == null || filter.getStatus().isBlank() ? null : filter.getStatus();
+
+		List<BookingCalendarEntryDto> entries = bookingRepository.findCalendarEntries(after == null ? 0 : after,
+				filter.getFacilityId(), filter.getResidentId(), filter.getFrom(), filter.getTo(), status,
+				BookingAvailabilityIndex.RELEASED_STATUSES, Limit.of(pageSize + 1));
+
+		boolean hasNext = entries.size() > pageSize;
+		if (hasNext) {
+			entries = entries.subList(0, pageSize);
+		}
+		return new BookingCalendarPageDto(entries, hasNext ? entries.get(pageSize - 1).getId() : null);
+	}
+
+	private int resolvePageSize(Integer size) throws BookingException {
+		int pageSize = size == null ? defaultPageSize : size;
+		if (pageSize < 1 || pageSize > maxPageSize) {
+			throw new BookingException(ValidationConstants.INVALID_PAGE_SIZE + maxPageSize);
+		}
+		return pageSize;
+	}
+
+	/**
+	 * Streams every booking in id order inside one read-only transaction.
+	 * Each row is detached and written before the next one is fetched, so
+	 * neither the heap nor the persistence context grows with the table.
+	 */
+	@Override
+	public void exportBookings(BookingExportFormat format, OutputStream outputStream) throws IOException {
+		if (format == BookingExportFormat.CSV) {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+			writer.write(CSV_HEADER);
+			streamBookings(booking -> writeCsvRow(writer, booking));
+			writer.flush();
+		} else {
+			JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+					.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.setRootValueSeparator(null);
+			streamBookings(booking -> {
+				generator.writeObject(booking);
+				generator.writeRaw('\n');
+			});
+			generator.close();
+		}
+	}
+
+	private void streamBookings(BookingRowWriter rowWriter) throws IOException {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				try (Stream<Booking> bookings = bookingRepository.streamAllByOrderByIdAsc()) {
+					Iterator<Booking> iterator = bookings.iterator();
+					while (iterator.hasNext()) {
+						Booking booking = iterator.next();
+						entityManager.detach(booking);
+						rowWriter.write(mapToBookingDto(booking));
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static void writeCsvRow(Writer writer, BookingDto booking) throws IOException {
+		writer.write(booking.getId() + "," + csvDate(booking.getBookingDate()) + "," + csvValue(booking.getFacilityId())
+				+ "," + csvValue(booking.getResidentId()) + "," + csvDate(booking.getEventDate()) + ","
+				+ csvDate(booking.getEventEndDate()) + "," + csvValue(booking.getStatus()) + "\n");
+	}
+
+	private static String csvDate(Date date) {
+		return date == null ? "" : date.toInstant().toString();
+	}
+
+	private static String csvValue(Object value) {
+		if (value == null) {
+			return "";
+		}
+		String text = value.toString();
+		if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+			return "\"" + text.replace("\"", "\"\"") + "\"";
+		}
+		return text;
+	}
+
+	private interface BookingRowWriter {
+		void write(BookingDto booking) throws IOException;
+	}
+
+	@Override
+	@Transactional
 	public String approveOrRejectBooking(int bookingId, boolean isApproved) throws BookingException {
 
 		Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
@@ -79,6 +551,13 @@ public class BookingServiceImpl implements BookingService {
 		if (booking.getStatus().equalsIgnoreCase(MessageConstants.BOOKING_CANCELLED)) {
 			throw new BookingException("Booking is cancelled");
 		}
+		boolean wasReleased = BookingAvailabilityIndex.isReleased(booking.getStatus());
+		// before the status changes, a rejected slot change must leave the booking as it was
+		if (isApproved && wasReleased) {
+			changeSlot(booking, true);
+		} else if (!isApproved && !wasReleased) {
+			changeSlot(booking, false);
+		}
 		if (isApproved) {
 			booking.setStatus(MessageConstants.BOOKING_ACCEPTED);
 			bookingMessage = "accepted";
@@ -87,6 +566,7 @@ public class BookingServiceImpl implements BookingService {
 			bookingMessage = "declined";
 		}
 		bookingRepository.save(booking);
+		aggregateVersions.bump(Aggregate.BOOKINGS);
 
 		return "booking with id:" + bookingId + " is " + bookingMessage;
 	}
@@ -101,23 +581,98 @@ public class BookingServiceImpl implements BookingService {
 	}
 
 	@Override
+	@Transactional
 	public BookingDto cancelBooking(int bookingId) throws BookingException {
 		Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
 		if (!bookingOptional.isPresent()) {
 			throw new BookingException(MessageConstants.BOOKING_NOT_FOUND);
 		}
 		Booking booking = bookingOptional.get();
+		if (!BookingAvailabilityIndex.isReleased(booking.getStatus())) {
+			changeSlot(booking, false);
+		}
 		booking.setStatus(MessageConstants.BOOKING_CANCELLED);
 		bookingRepository.save(booking);
+		aggregateVersions.bump(Aggregate.BOOKINGS);
 		return mapToBookingDto(booking);
 	}
 
+	/**
+	 * Takes back ({@code reserve}) or frees the slot of an existing booking.
+	 * Like an admission it reads the Facility version under the facility
+	 * lock, reloads the slots when another node has written since, and
+	 * increments the version in the surrounding transaction so the other
+	 * nodes reload in turn. The index is changed once the transaction
+	 * commits, and the lock is held until it completes so no admission on
+	 * this node slips in between.
+	 */
+	private void changeSlot(Booking booking, boolean reserve) throws BookingException {
+		if (booking.getFacilityId() == null || booking.getId() == null) {
+			return;
+		}
+		int facilityId = booking.getFacilityId();
+		Lock lock = facilityLockRegistry.lockFor(facilityId);
+		lock.lock();
+		boolean deferred = false;
+		try {
+			Integer version = facilityRepository.findVersionById(facilityId);
+			if (version == null) {
+				if (reserve) {
+					throw new BookingException(ValidationConstants.INVALID_FACILITY_FOR_BOOKING);
+				}
+			} else {
+				if (!availabilityIndex.isCurrent(facilityId, version)) {
+					availabilityIndex.reload(facilityId, version, activeBookingsOf(facilityId));
+				}
+				if (reserve && !availabilityIndex.isAvailable(facilityId, booking.getEventDate(),
+						availabilityIndex.endOf(booking))) {
+					throw new BookingException(ValidationConstants.SLOT_ALREADY_BOOKED);
+				}
+				if (facilityRepository.incrementVersionIfMatches(facilityId, version) == 0) {
+					throw new BookingException(MessageConstants.BOOKING_CONFLICT);
+				}
+			}
+			Runnable apply = () -> {
+				if (reserve) {
+					availabilityIndex.reserve(facilityId, booking.getId(), booking.getEventDate(),
+							availabilityIndex.endOf(booking));
+				} else {
+					availabilityIndex.release(facilityId, booking.getId(), booking.getEventDate());
+				}
+				if (version != null) {
+					availabilityIndex.setVersion(facilityId, version + 1);
+				}
+			};
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						apply.run();
+					}
+
+					@Override
+					public void afterCompletion(int status) {
+						lock.unlock();
+					}
+				});
+				deferred = true;
+			} else {
+				apply.run();
+			}
+		} finally {
+			if (!deferred) {
+				lock.unlock();
+			}
+		}
+	}
+
 	private Booking mapToBooking(BookingDto bookingDto) {
 
 		Booking booking = new Booking();
 
 		booking.setBookingDate(bookingDto.getBookingDate());
 		booking.setEventDate(bookingDto.getEventDate());
+		booking.setEventEndDate(bookingDto.getEventEndDate());
 		booking.setFacilityId(bookingDto.getFacilityId());
 		booking.setResidentId(bookingDto.getResidentId());
 		booking.setStatus(bookingDto.getStatus());
@@ -131,6 +686,7 @@ public class BookingServiceImpl implements BookingService {
 			bookingDto.setId(booking.getId());
 			bookingDto.setBookingDate(booking.getBookingDate());
 			bookingDto.setEventDate(booking.getEventDate());
+			bookingDto.setEventEndDate(booking.getEventEndDate());
 			bookingDto.setFacilityId(booking.getFacilityId());
 			bookingDto.setResidentId(booking.getResidentId());
 			bookingDto.setStatus(booking.getStatus());
@@ -138,22 +694,43 @@ public class BookingServiceImpl implements BookingService {
 		return bookingDto;
 	}
 	
-	private boolean validateBooking(Booking booking) throws BookingException {
+	// the facility and its slot are checked by admitBooking once it holds the facility
+	// lock, against an index brought up to the facility version
+	private void validateBooking(Booking booking) throws BookingException {
 		
-		int facilityId=booking.getFacilityId();
 		int residentId=booking.getResidentId();
 		
-		if(!facilityRepository.findById(facilityId).isPresent()) {
+		if(!residentRepository.existsById(residentId)) {
+			throw new BookingException(ValidationConstants.INVALID_RESIDENT_FOR_BOOKING);
+		}
+		validateEventTime(booking);
+	}
+
+	private Booking validateBatchItem(BookingDto bookingDto, Set<Integer> residentIds) throws BookingException {
+		if (bookingDto == null) {
+			throw new BookingException(MessageConstants.BOOKING_STATUS_FAILED);
+		}
+		Booking booking = mapToBooking(bookingDto);
+		if (booking.getFacilityId() == null) {
 			throw new BookingException(ValidationConstants.INVALID_FACILITY_FOR_BOOKING);
 		}
-		if(!residentRepository.findById(residentId).isPresent()) {
+		if (booking.getResidentId() == null || !residentIds.contains(booking.getResidentId())) {
 			throw new BookingException(ValidationConstants.INVALID_RESIDENT_FOR_BOOKING);
 		}
-		if(facilityRepository.findById(facilityId).get().getStatus().equalsIgnoreCase("Occupied")) {
-			throw new BookingException(ValidationConstants.FACILITY_ALREADY_OCCUPIED);
+		validateEventTime(booking);
+		return booking;
+	}
+
+	private void validateEventTime(Booking booking) throws BookingException {
+		if(booking.getEventDate()==null) {
+			throw new BookingException(ValidationConstants.INVALID_EVENT_DATE);
+		}
+		if(booking.getEventEndDate()==null) {
+			booking.setEventEndDate(availabilityIndex.defaultEndFor(booking.getEventDate()));
+		}
+		if(!booking.getEventEndDate().after(booking.getEventDate())) {
+			throw new BookingException(ValidationConstants.INVALID_EVENT_END_DATE);
 		}
-		
-		return true;
 	}
 
 }
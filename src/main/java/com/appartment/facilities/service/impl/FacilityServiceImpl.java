@@ -1,27 +1,73 @@
 package com.appartment.facilities.service.impl;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.appartment.facilities.availability.BookingAvailabilityIndex;
+import com.appartment.facilities.availability.FacilityCatalogue;
 import com.appartment.facilities.constants.MessageConstants;
 import com.appartment.facilities.constants.ValidationConstants;
 import com.appartment.facilities.dto.CreateFacilityResponseDto;
+import com.appartment.facilities.dto.AvailabilitySlotDto;
+import com.appartment.facilities.dto.FacilityAvailabilityDto;
 import com.appartment.facilities.dto.FacilityDto;
+import com.appartment.facilities.dto.FacilityPageDto;
 import com.appartment.facilities.entity.Facility;
 import com.appartment.facilities.exception.FacilityException;
+import com.appartment.facilities.exception.PictureException;
 import com.appartment.facilities.repository.FacilityRepository;
 import com.appartment.facilities.service.FacilityService;
+import com.appartment.facilities.storage.PictureDerivatives;
+import com.appartment.facilities.storage.PictureDerivatives.Size;
+import com.appartment.facilities.storage.PictureStore;
+import com.appartment.facilities.versioning.AggregateVersions;
+import com.appartment.facilities.versioning.AggregateVersions.Aggregate;
 
 @Service
 public class FacilityServiceImpl implements FacilityService {
 
+	// the fields a listing can select, in response order
+	private static final Map<String, Function<FacilityDto, Object>> FIELDS = fields();
+
 	@Autowired
 	FacilityRepository facilityRepository;
 
+	@Autowired
+	BookingAvailabilityIndex availabilityIndex;
+
+	@Autowired
+	FacilityCatalogue facilityCatalogue;
+
+	@Autowired
+	AggregateVersions aggregateVersions;
+
+	@Autowired
+	PictureStore pictureStore;
+
+	@Autowired
+	PictureDerivatives pictureDerivatives;
+
+	@Value("${availability.max-days:31}")
+	private int maxAvailabilityDays = 31;
+
+	@Value("${facility.page.default-size:50}")
+	private int defaultPageSize = 50;
+
+	@Value("${facility.page.max-size:200}")
+	private int maxPageSize = 200;
+
 	@Override
 	public CreateFacilityResponseDto createFacility(FacilityDto facilityDto) throws FacilityException {
 		Facility facility = mapToFacility(facilityDto);
@@ -30,9 +76,16 @@ public class FacilityServiceImpl implements FacilityService {
 		if (facility != null) {
 			if(validateFacility(facility)) {
 				facility.setStatus("Available");
+				facility.setPicture(resolvePicture(facilityDto.getPicture()));
 				Facility facilityEntity = facilityRepository.save(facility);
-				
+				facilityCatalogue.put(facilityEntity);
+				aggregateVersions.bump(Aggregate.FACILITIES);
+				pictureDerivatives.generate(facilityEntity.getPicture());
+
 				facilityDto.setStatus(facility.getStatus());
+				facilityDto.setPicture(PictureStore.toUrl(facility.getPicture()));
+				facilityDto.setPictureThumbnail(PictureDerivatives.toUrl(facility.getPicture(), Size.THUMBNAIL));
+				facilityDto.setPictureMedium(PictureDerivatives.toUrl(facility.getPicture(), Size.MEDIUM));
 				createFacilityResponseDto.setFacilityDto(facilityDto);
 				createFacilityResponseDto.getFacilityDto().setId(facilityEntity.getId());
 				createFacilityResponseDto.setMessage(MessageConstants.FACILITY_STATUS_SUCCESS);
@@ -54,8 +107,10 @@ public class FacilityServiceImpl implements FacilityService {
 		Facility facility = facilityOptional.get();
 		facility.setDescription(facilityDto.getDescription());
 		facility.setName(facilityDto.getName());
-		facility.setPicture(facilityDto.getPicture());
-		facilityRepository.save(facility);
+		facility.setPicture(resolvePicture(facilityDto.getPicture()));
+		facilityCatalogue.put(facilityRepository.save(facility));
+		aggregateVersions.bump(Aggregate.FACILITIES);
+		pictureDerivatives.generate(facility.getPicture());
 		return "Facility with id:" + id + " is updated successfully.";
 	}
 
@@ -66,23 +121,54 @@ public class FacilityServiceImpl implements FacilityService {
 			throw new FacilityException(MessageConstants.FACILITY_NOT_FOUND);
 		}
 		facilityRepository.deleteById(id);
+		facilityCatalogue.remove(id);
+		aggregateVersions.bump(Aggregate.FACILITIES);
 		return "Facility with id:" + id + " is deleted.";
 	}
 
+	/**
+	 * Served from the in-process catalogue snapshot. The list is immutable.
+	 */
 	@Override
 	public List<FacilityDto> getAllFacility() {
+		return facilityCatalogue.getAll();
+	}
 
-		return facilityRepository.findAll().stream().map(facility -> mapToFacilityDto(facility))
-				.collect(Collectors.toList());
+	/**
+	 * A page of the catalogue snapshot after the id cursor, each facility
+	 * reduced to the requested fields.
+	 */
+	@Override
+	public FacilityPageDto getFacilities(List<String> fields, Integer after, Integer size) throws FacilityException {
+		List<String> selected = FieldSelection.resolve(fields, FIELDS.keySet());
+		if (selected == null) {
+			throw new FacilityException(ValidationConstants.INVALID_FIELDS + FIELDS.keySet());
+		}
+		int pageSize = size == null ? defaultPageSize : size;
+		if (pageSize < 1 || pageSize > maxPageSize) {
+			throw new FacilityException(ValidationConstants.INVALID_PAGE_SIZE + maxPageSize);
+		}
+
+		List<FacilityDto> facilities = facilityCatalogue.getPage(after, pageSize + 1);
+		boolean hasNext = facilities.size() > pageSize;
+		List<Map<String, Object>> page = new ArrayList<>();
+		for (FacilityDto facilityDto : facilities.subList(0, Math.min(pageSize, facilities.size()))) {
+			Map<String, Object> facility = new LinkedHashMap<>();
+			for (String field : selected) {
+				facility.put(field, FIELDS.get(field).apply(facilityDto));
+			}
+			page.add(facility);
+		}
+		return new FacilityPageDto(page, hasNext ? facilities.get(pageSize - 1).getId() : null);
 	}
 
 	@Override
 	public FacilityDto getFacilityById(int id) throws FacilityException {
-		Optional<Facility> facilityOptional = facilityRepository.findById(id);
-		if (!facilityOptional.isPresent()) {
+		FacilityDto facilityDto = facilityCatalogue.get(id);
+		if (facilityDto == null) {
 			throw new FacilityException(MessageConstants.FACILITY_NOT_FOUND);
 		}
-		return mapToFacilityDto(facilityOptional.get());
+		return facilityDto;
 	}
 	
 	@Override
@@ -96,7 +182,8 @@ public class FacilityServiceImpl implements FacilityService {
 			throw new FacilityException(MessageConstants.FACILITY_ALREADY_AVAILABLE);
 		}
 		facility.setStatus("Available");
-		facilityRepository.save(facility);
+		facilityCatalogue.put(facilityRepository.save(facility));
+		aggregateVersions.bump(Aggregate.FACILITIES);
 		return "Facility with id:"+id+" is available now.";
 	}
 
@@ -106,23 +193,30 @@ public class FacilityServiceImpl implements FacilityService {
 		facility.setName(facilityDto.getName());
 		facility.setStatus(facilityDto.getStatus());
 		facility.setDescription(facilityDto.getDescription());
-		facility.setPicture(facilityDto.getPicture());
 
 		return facility;
 	}
 
-	private FacilityDto mapToFacilityDto(Facility facility) {
-		FacilityDto facilityDto = new FacilityDto();
-		if (facility != null) {
-			facilityDto.setId(facility.getId());
-			facilityDto.setName(facility.getName());
-			facilityDto.setStatus(facility.getStatus());
-			facilityDto.setDescription(facility.getDescription());
-			facilityDto.setPicture(facility.getPicture());
+	private static Map<String, Function<FacilityDto, Object>> fields() {
+		Map<String, Function<FacilityDto, Object>> fields = new LinkedHashMap<>();
+		fields.put("id", FacilityDto::getId);
+		fields.put("name", FacilityDto::getName);
+		fields.put("status", FacilityDto::getStatus);
+		fields.put("description", FacilityDto::getDescription);
+		fields.put("picture", FacilityDto::getPicture);
+		fields.put("pictureThumbnail", FacilityDto::getPictureThumbnail);
+		fields.put("pictureMedium", FacilityDto::getPictureMedium);
+		return Collections.unmodifiableMap(fields);
+	}
+
+	private String resolvePicture(String picture) throws FacilityException {
+		try {
+			return pictureStore.resolve(picture);
+		} catch (PictureException e) {
+			throw new FacilityException(e.getMessage());
 		}
-		return facilityDto;
 	}
-	
+
 	private boolean validateFacility(Facility facility) throws FacilityException {
 		if(facility.getName().isBlank()) {
 			throw new FacilityException(ValidationConstants.INVALID_FACILITY_NAME);
@@ -134,4 +228,48 @@ public class FacilityServiceImpl implements FacilityService {
 	}
 
 
+	/**
+	 * Answered from the in-memory catalogue and occupancy bitmap, without a
+	 * database query. The range is widened to whole slots.
+	 */
+	@Override
+	public FacilityAvailabilityDto getAvailability(int id, Date from, Date to) throws FacilityException {
+		if (from == null || to == null || !to.after(from)) {
+			throw new FacilityException(ValidationConstants.INVALID_AVAILABILITY_RANGE);
+		}
+		if (to.getTime() - from.getTime() > TimeUnit.DAYS.toMillis(maxAvailabilityDays)) {
+			throw new FacilityException(ValidationConstants.AVAILABILITY_RANGE_TOO_LONG + maxAvailabilityDays);
+		}
+		if (facilityCatalogue.get(id) == null) {
+			throw new FacilityException(MessageConstants.FACILITY_NOT_FOUND);
+		}
+
+		long slotMillis = availabilityIndex.occupancySlotMillis();
+		long fromSlot = Math.floorDiv(from.getTime(), slotMillis);
+		long toSlot = -Math.floorDiv(-to.getTime(), slotMillis);
+		BitSet busy = availabilityIndex.occupancy(id, fromSlot, toSlot);
+
+		List<AvailabilitySlotDto> slots = new ArrayList<>();
+		int slotCount = (int) (toSlot - fromSlot);
+		int runStart = 0;
+		while (runStart < slotCount) {
+			boolean runBusy = busy.get(runStart);
+			int runEnd = runBusy ? busy.nextClearBit(runStart) : busy.nextSetBit(runStart);
+			if (runEnd < 0 || runEnd > slotCount) {
+				runEnd = slotCount;
+			}
+			slots.add(new AvailabilitySlotDto(new Date((fromSlot + runStart) * slotMillis),
+					new Date((fromSlot + runEnd) * slotMillis), runBusy));
+			runStart = runEnd;
+		}
+
+		FacilityAvailabilityDto facilityAvailabilityDto = new FacilityAvailabilityDto();
+		facilityAvailabilityDto.setFacilityId(id);
+		facilityAvailabilityDto.setFrom(new Date(fromSlot * slotMillis));
+		facilityAvailabilityDto.setTo(new Date(toSlot * slotMillis));
+		facilityAvailabilityDto.setSlotMinutes(TimeUnit.MILLISECONDS.toMinutes(slotMillis));
+		facilityAvailabilityDto.setSlots(slots);
+		return facilityAvailabilityDto;
+	}
+
 }
@@ -0,0 +1,36 @@
+package com.appartment.facilities.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Parses the {@code fields} parameter of the list endpoints.
+ */
+final class FieldSelection {
+
+	private FieldSelection() {
+	}
+
+	/**
+	 * The requested fields in the order of {@code available}, all of them
+	 * when none are requested, or null when one is unknown.
+	 */
+	static List<String> resolve(Collection<String> requested, Collection<String> available) {
+		if (requested == null || requested.isEmpty()) {
+			return List.copyOf(available);
+		}
+		for (String field : requested) {
+			if (!available.contains(field.trim())) {
+				return null;
+			}
+		}
+		List<String> fields = new ArrayList<>();
+		for (String field : available) {
+			if (requested.stream().anyMatch(name -> name.trim().equals(field))) {
+				fields.add(field);
+			}
+		}
+		return fields;
+	}
+}
@@ -3,7 +3,8 @@ package com.appartment.facilities.service.impl;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.appartment.facilities.constants.MessageConstants;
@@ -16,7 +17,12 @@ import com.appartment.facilities.exception.ManagerException;
 import com.appartment.facilities.exception.ResidentException;
 import com.appartment.facilities.repository.ManagerRepository;
 import com.appartment.facilities.repository.UserRepository;
+import com.appartment.facilities.security.classes.TokenVersionRegistry;
+import com.appartment.facilities.security.classes.UserDetailsCache;
+import com.appartment.facilities.security.classes.UsernameIndex;
 import com.appartment.facilities.service.ManagerService;
+import com.appartment.facilities.versioning.AggregateVersions;
+import com.appartment.facilities.versioning.AggregateVersions.Aggregate;
 
 @Service
 public class ManagerServiceImpl implements ManagerService {
@@ -28,7 +34,19 @@ public class ManagerServiceImpl implements ManagerService {
 	UserRepository userRepository;
 	
 	@Autowired
-	private BCryptPasswordEncoder passwordEncoder;
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	UserDetailsCache userDetailsCache;
+
+	@Autowired
+	TokenVersionRegistry tokenVersionRegistry;
+
+	@Autowired
+	UsernameIndex usernameIndex;
+
+	@Autowired
+	AggregateVersions aggregateVersions;
 
 	@Override
 	public CreateManagerResponseDto createManager(ManagerDto managerDto) throws ManagerException {
@@ -42,7 +60,7 @@ public class ManagerServiceImpl implements ManagerService {
 
 		if (manager != null) {
 			if(validateManager(manager)) {
-				Manager managerEntity = managerRepository.save(manager);
+				Manager managerEntity = saveManager(manager);
 				createManagerResponseDto.setManagerDto(managerDto);
 				createManagerResponseDto.getManagerDto().setPassword(null);
 				createManagerResponseDto.getManagerDto().setId(managerEntity.getId());
@@ -63,6 +81,7 @@ public class ManagerServiceImpl implements ManagerService {
 			throw new ManagerException(MessageConstants.MANAGER_NOT_FOUND);
 		}
 		Manager manager = managerOptional.get();
+		String previousUserName = manager.getUserName();
 
 		manager.setUserName(managerDto.getUserName());
 		manager.setPassword(passwordEncoder.encode(managerDto.getPassword()));
@@ -72,7 +91,9 @@ public class ManagerServiceImpl implements ManagerService {
 		manager.setPhone(managerDto.getPhone());
 		manager.setEmail(managerDto.getEmail());
 
-		managerRepository.save(manager);
+		saveManager(manager);
+		userDetailsCache.invalidate(previousUserName, manager.getUserName());
+		tokenVersionRegistry.revoke(previousUserName, manager.getUserName());
 
 		return "manager with id:" + managerId + " is updated successfully.";
 	}
@@ -114,6 +135,20 @@ public class ManagerServiceImpl implements ManagerService {
 		return managerDto;
 	}
 	
+	private Manager saveManager(Manager manager) throws ManagerException {
+		try {
+			Manager managerEntity = managerRepository.save(manager);
+			usernameIndex.add(managerEntity.getUserName());
+			aggregateVersions.bump(Aggregate.USERS);
+			return managerEntity;
+		} catch (DataIntegrityViolationException e) {
+			if (UsernameIndex.isDuplicateUserName(e)) {
+				throw new ManagerException(ValidationConstants.USERNAME_EXISTS);
+			}
+			throw e;
+		}
+	}
+
 	private boolean validateManager(Manager manager) throws ManagerException {
 		String emailRegex = "^([a-zA-Z0-9_\\-\\.]+)@([a-zA-Z0-9_\\-\\.]+)\\.([a-zA-Z]{2,5})$";
 		String phoneRegex = "^\\d{10}$";
@@ -138,8 +173,23 @@ public class ManagerServiceImpl implements ManagerService {
 		}
 		user.setStatus("Active");
 		userRepository.save(user);
+		aggregateVersions.bump(Aggregate.USERS);
+		userDetailsCache.invalidate(userName);
+		tokenVersionRegistry.revoke(userName);
 		
 		return "SignUp approved for user: "+userName;
 	}
 
+	@Override
+	public String revokeUserTokens(String userName) throws ResidentException {
+
+		if (userRepository.findAuthByUserName(userName) == null) {
+			throw new ResidentException(MessageConstants.RESIDENT_NOT_FOUND);
+		}
+		tokenVersionRegistry.revoke(userName);
+		userDetailsCache.invalidate(userName);
+
+		return "all tokens revoked for user: " + userName;
+	}
+
 }
@@ -1,30 +1,81 @@
 package com.appartment.facilities.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.appartment.facilities.constants.MessageConstants;
 import com.appartment.facilities.constants.ValidationConstants;
 import com.appartment.facilities.dto.CreateResidentResponseDto;
 import com.appartment.facilities.dto.ResidentDto;
+import com.appartment.facilities.dto.ResidentPageDto;
 import com.appartment.facilities.entity.Resident;
+import com.appartment.facilities.exception.PictureException;
 import com.appartment.facilities.exception.ResidentException;
 import com.appartment.facilities.repository.ResidentRepository;
+import com.appartment.facilities.repository.UserRepository;
+import com.appartment.facilities.security.classes.TokenVersionRegistry;
+import com.appartment.facilities.security.classes.UserDetailsCache;
+import com.appartment.facilities.security.classes.UsernameIndex;
 import com.appartment.facilities.service.ResidentService;
+import com.appartment.facilities.storage.PictureDerivatives;
+import com.appartment.facilities.storage.PictureDerivatives.Size;
+import com.appartment.facilities.storage.PictureStore;
+import com.appartment.facilities.versioning.AggregateVersions;
+import com.appartment.facilities.versioning.AggregateVersions.Aggregate;
+
+import jakarta.persistence.Tuple;
 
 @Service
 public class ResisdentServiceImpl implements ResidentService {
 
+	// the fields a listing can select, in response order, and the attribute each is read from
+	private static final Map<String, String> FIELD_ATTRIBUTES = fieldAttributes();
+
 	@Autowired
 	ResidentRepository residentRepository;
 	
 	@Autowired
-	private BCryptPasswordEncoder passwordEncoder;
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	UserDetailsCache userDetailsCache;
+
+	@Autowired
+	TokenVersionRegistry tokenVersionRegistry;
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	UsernameIndex usernameIndex;
+
+	@Autowired
+	AggregateVersions aggregateVersions;
+
+	@Autowired
+	PictureStore pictureStore;
+
+	@Autowired
+	PictureDerivatives pictureDerivatives;
+
+	@Value("${resident.page.default-size:50}")
+	private int defaultPageSize = 50;
+
+	@Value("${resident.page.max-size:200}")
+	private int maxPageSize = 200;
 
 	@Override
 	public CreateResidentResponseDto createResident(ResidentDto residentDto) throws ResidentException {
@@ -35,11 +86,18 @@ public class ResisdentServiceImpl implements ResidentService {
 		if (resident != null) {
 			if(validateResident(resident)) {
 				resident.setStatus(ValidationConstants.USER_APPROVAL_PENDING);
-				Resident residentEntity = residentRepository.save(resident);
+				resident.setPicture(resolvePicture(residentDto.getPicture()));
+				Resident residentEntity = saveResident(resident);
+				pictureDerivatives.generate(residentEntity.getPicture());
 				createResidentResponseDto.setResidentDto(residentDto);
 				createResidentResponseDto.getResidentDto().setPassword(null);
 				createResidentResponseDto.getResidentDto().setStatus(residentEntity.getStatus());
 				createResidentResponseDto.getResidentDto().setId(residentEntity.getId());
+				createResidentResponseDto.getResidentDto().setPicture(PictureStore.toUrl(residentEntity.getPicture()));
+				createResidentResponseDto.getResidentDto()
+						.setPictureThumbnail(PictureDerivatives.toUrl(residentEntity.getPicture(), Size.THUMBNAIL));
+				createResidentResponseDto.getResidentDto()
+						.setPictureMedium(PictureDerivatives.toUrl(residentEntity.getPicture(), Size.MEDIUM));
 				createResidentResponseDto.setMessage(MessageConstants.RESIDENT_STATUS_SUCCESS);
 			}	
 		} else {
@@ -59,6 +117,9 @@ public class ResisdentServiceImpl implements ResidentService {
 		}
 
 		residentRepository.deleteById(residentId);
+		aggregateVersions.bump(Aggregate.USERS);
+		userDetailsCache.invalidate(residentOptional.get().getUserName());
+		tokenVersionRegistry.revoke(residentOptional.get().getUserName());
 
 		return "resident with id:" + residentId + " is deleted successfully.";
 	}
@@ -71,6 +132,7 @@ public class ResisdentServiceImpl implements ResidentService {
 			throw new ResidentException(MessageConstants.RESIDENT_NOT_FOUND);
 		}
 		Resident resident = residentOptional.get();
+		String previousUserName = resident.getUserName();
 		resident.setUserName(residentDto.getUserName());
 		resident.setPassword(passwordEncoder.encode(residentDto.getPassword()));
 		resident.setRole(residentDto.getRole());
@@ -80,9 +142,12 @@ public class ResisdentServiceImpl implements ResidentService {
 		resident.setFlatType(residentDto.getFlatType());
 		resident.setPhone(residentDto.getPhone());
 		resident.setEmail(residentDto.getEmail());
-		resident.setPicture(residentDto.getPicture());
+		resident.setPicture(resolvePicture(residentDto.getPicture()));
 
-		residentRepository.save(resident);
+		saveResident(resident);
+		pictureDerivatives.generate(resident.getPicture());
+		userDetailsCache.invalidate(previousUserName, resident.getUserName());
+		tokenVersionRegistry.revoke(previousUserName, resident.getUserName());
 
 		return "resident with id:" + residentId + " is updated successfully.";
 	}
@@ -103,6 +168,93 @@ public class ResisdentServiceImpl implements ResidentService {
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Keyset pagination on id that selects only the columns behind the
+	 * requested fields, so a picker asking for name and flat never reads
+	 * email, phone or picture.
+	 */
+	@Override
+	public ResidentPageDto getResidents(List<String> fields, Integer after, Integer size) throws ResidentException {
+		List<String> selected = FieldSelection.resolve(fields, FIELD_ATTRIBUTES.keySet());
+		if (selected == null) {
+			throw new ResidentException(ValidationConstants.INVALID_FIELDS + FIELD_ATTRIBUTES.keySet());
+		}
+		int pageSize = size == null ? defaultPageSize : size;
+		if (pageSize < 1 || pageSize > maxPageSize) {
+			throw new ResidentException(ValidationConstants.INVALID_PAGE_SIZE + maxPageSize);
+		}
+
+		Set<String> attributes = selected.stream().map(FIELD_ATTRIBUTES::get)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		List<Tuple> rows = residentRepository.findAttributes(attributes, after, pageSize + 1);
+		boolean hasNext = rows.size() > pageSize;
+		List<Map<String, Object>> page = new ArrayList<>();
+		for (Tuple row : rows.subList(0, Math.min(pageSize, rows.size()))) {
+			Map<String, Object> resident = new LinkedHashMap<>();
+			for (String field : selected) {
+				resident.put(field, fieldValue(field, row.get(FIELD_ATTRIBUTES.get(field))));
+			}
+			page.add(resident);
+		}
+		return new ResidentPageDto(page, hasNext ? rows.get(pageSize - 1).get("id", Integer.class) : null);
+	}
+
+	@Override
+	public boolean isUsernameAvailable(String userName) {
+		if (userName == null || userName.isBlank()) {
+			return false;
+		}
+		// only a possible hit in the filter is worth a round trip
+		return !usernameIndex.mightExist(userName) || !userRepository.existsByUserName(userName);
+	}
+
+	// the unique index on user_name settles two registrations racing past the check
+	private Resident saveResident(Resident resident) throws ResidentException {
+		try {
+			Resident residentEntity = residentRepository.save(resident);
+			usernameIndex.add(residentEntity.getUserName());
+			aggregateVersions.bump(Aggregate.USERS);
+			return residentEntity;
+		} catch (DataIntegrityViolationException e) {
+			if (UsernameIndex.isDuplicateUserName(e)) {
+				throw new ResidentException(ValidationConstants.USERNAME_EXISTS);
+			}
+			throw e;
+		}
+	}
+
+	private static Object fieldValue(String field, Object value) {
+		switch (field) {
+		case "picture":
+			return PictureStore.toUrl((String) value);
+		case "pictureThumbnail":
+			return PictureDerivatives.toUrl((String) value, Size.THUMBNAIL);
+		case "pictureMedium":
+			return PictureDerivatives.toUrl((String) value, Size.MEDIUM);
+		default:
+			return value;
+		}
+	}
+
+	private static Map<String, String> fieldAttributes() {
+		Map<String, String> fields = new LinkedHashMap<>();
+		for (String attribute : List.of("id", "userName", "role", "status", "name", "flatNo", "flatType", "phone",
+				"email", "picture")) {
+			fields.put(attribute, attribute);
+		}
+		fields.put("pictureThumbnail", "picture");
+		fields.put("pictureMedium", "picture");
+		return Collections.unmodifiableMap(fields);
+	}
+
+	private String resolvePicture(String picture) throws ResidentException {
+		try {
+			return pictureStore.resolve(picture);
+		} catch (PictureException e) {
+			throw new ResidentException(e.getMessage());
+		}
+	}
+
 	private Resident mapToResident(ResidentDto residentDto) {
 		if (residentDto == null || residentDto.getUserName().isBlank() || residentDto.getPassword().isBlank()) {
 			return null;
@@ -118,7 +270,6 @@ public class ResisdentServiceImpl implements ResidentService {
 		resident.setFlatType(residentDto.getFlatType());
 		resident.setPhone(residentDto.getPhone());
 		resident.setEmail(residentDto.getEmail());
-		resident.setPicture(residentDto.getPicture());
 		return resident;
 	}
 
@@ -135,7 +286,9 @@ public class ResisdentServiceImpl implements ResidentService {
 			residentDto.setFlatType(resident.getFlatType());
 			residentDto.setPhone(resident.getPhone());
 			residentDto.setEmail(resident.getEmail());
-			residentDto.setPicture(resident.getPicture());
+			residentDto.setPicture(PictureStore.toUrl(resident.getPicture()));
+			residentDto.setPictureThumbnail(PictureDerivatives.toUrl(resident.getPicture(), Size.THUMBNAIL));
+			residentDto.setPictureMedium(PictureDerivatives.toUrl(resident.getPicture(), Size.MEDIUM));
 		}
 		return residentDto;
 	}
@@ -150,7 +303,7 @@ public class ResisdentServiceImpl implements ResidentService {
 		if (!resident.getPhone().matches(phoneRegex)) {
 			throw new ResidentException(ValidationConstants.INVALID_PHONE);
 		}
-		if(residentRepository.findByUserName(resident.getUserName()).isPresent()) {
+		if (!isUsernameAvailable(resident.getUserName())) {
 			throw new ResidentException(ValidationConstants.USERNAME_EXISTS);
 		}
 		return true;
@@ -0,0 +1,161 @@
+package com.appartment.facilities.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.entity.RefreshToken;
+import com.appartment.facilities.exception.LoginException;
+import com.appartment.facilities.repository.UserAuthProjection;
+import com.appartment.facilities.repository.UserRepository;
+import com.appartment.facilities.security.classes.AuthenticationRequest;
+import com.appartment.facilities.security.classes.AuthenticationResponse;
+import com.appartment.facilities.security.classes.RefreshTokenRequest;
+import com.appartment.facilities.security.classes.RefreshTokenStore;
+import com.appartment.facilities.security.classes.TokenDenyList;
+import com.appartment.facilities.security.classes.TokenVersionRegistry;
+import com.appartment.facilities.security.config.JwtUtil;
+import com.appartment.facilities.service.UserService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+
+@Service
+public class UserServiceImpl implements UserService {
+
+	// matched against for unknown names so they cost the same BCrypt check as a wrong password
+	private static final String UNKNOWN_USER_HASH = "$2a$10$VcBJGySvT8ldM1Htc0FmOeb..X3/eWNbdu9sf8snZSBE1CyeUN8Qe";
+
+	@Autowired
+	UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	JwtUtil jwtUtil;
+
+	@Autowired
+	TokenVersionRegistry tokenVersionRegistry;
+
+	@Autowired
+	RefreshTokenStore refreshTokenStore;
+
+	@Autowired
+	TokenDenyList tokenDenyList;
+
+	@Value("${security.jwt.refresh-ttl:14d}")
+	private Duration refreshTokenTtl = Duration.ofDays(14);
+
+	private final SecureRandom secureRandom = new SecureRandom();
+
+	@Override
+	public AuthenticationResponse login(AuthenticationRequest authenticationRequest) throws LoginException {
+		String username = authenticationRequest.getUsername();
+		String password = authenticationRequest.getPassword();
+		if (username == null || username.isBlank() || password == null) {
+			throw new LoginException(ValidationConstants.INVALID_CREDENTIALS);
+		}
+
+		// read before the user so a concurrent revocation cannot leave a token with stale claims valid
+		int tokenVersion = tokenVersionRegistry.currentVersion(username);
+		UserAuthProjection user = userRepository.findAuthByUserName(username);
+
+		boolean matches = passwordEncoder.matches(password, user != null ? user.getPassword() : UNKNOWN_USER_HASH);
+		if (user == null || !matches) {
+			throw new LoginException(ValidationConstants.INVALID_CREDENTIALS);
+		}
+		if (ValidationConstants.USER_APPROVAL_PENDING.equals(user.getStatus())) {
+			throw new LoginException(ValidationConstants.USER_APPROVAL_PENDING);
+		}
+
+		return issueTokens(user.getUserName(), user.getRole(), user.getStatus(), tokenVersion,
+				UUID.randomUUID().toString());
+	}
+
+	@Override
+	public AuthenticationResponse refresh(RefreshTokenRequest refreshTokenRequest) throws LoginException {
+		String token = refreshTokenRequest.getRefreshToken();
+		if (token == null || token.isBlank()) {
+			throw new LoginException(ValidationConstants.INVALID_REFRESH_TOKEN);
+		}
+
+		String tokenHash = hash(token);
+		RefreshToken stored = refreshTokenStore.find(tokenHash).orElse(null);
+		Date now = new Date();
+		if (stored == null || stored.getExpiresAt().before(now)) {
+			throw new LoginException(ValidationConstants.INVALID_REFRESH_TOKEN);
+		}
+		// a consumed token presented again has leaked, so the whole rotation chain is revoked
+		if (stored.getUsedAt() != null
+				|| !tokenVersionRegistry.isCurrent(stored.getUserName(), stored.getTokenVersion())
+				|| !refreshTokenStore.markUsed(tokenHash, now)) {
+			refreshTokenStore.revokeFamily(stored.getFamilyId());
+			throw new LoginException(ValidationConstants.INVALID_REFRESH_TOKEN);
+		}
+
+		return issueTokens(stored.getUserName(), stored.getRole(), stored.getStatus(), stored.getTokenVersion(),
+				stored.getFamilyId());
+	}
+
+	@Override
+	public String logout(String accessToken, RefreshTokenRequest refreshTokenRequest) throws LoginException {
+		revokeAccessToken(accessToken);
+		if (refreshTokenRequest != null && refreshTokenRequest.getRefreshToken() != null) {
+			refreshTokenStore.find(hash(refreshTokenRequest.getRefreshToken()))
+					.ifPresent(stored -> refreshTokenStore.revokeFamily(stored.getFamilyId()));
+		}
+		return "logged out successfully.";
+	}
+
+	@Override
+	public String revokeAccessToken(String accessToken) throws LoginException {
+		Claims claims;
+		try {
+			claims = jwtUtil.extractAllClaims(accessToken);
+		} catch (ExpiredJwtException e) {
+			return "token has already expired.";
+		} catch (JwtException | IllegalArgumentException e) {
+			throw new LoginException(ValidationConstants.INVALID_ACCESS_TOKEN);
+		}
+		if (claims.getId() == null) {
+			throw new LoginException(ValidationConstants.INVALID_ACCESS_TOKEN);
+		}
+		tokenDenyList.deny(claims.getId(), claims.getExpiration());
+		return "token revoked successfully.";
+	}
+
+	private AuthenticationResponse issueTokens(String userName, String role, String status, int tokenVersion,
+			String familyId) {
+		byte[] secret = new byte[32];
+		secureRandom.nextBytes(secret);
+		String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+		refreshTokenStore.save(new RefreshToken(hash(refreshToken), familyId, userName, role, status, tokenVersion,
+				new Date(System.currentTimeMillis() + refreshTokenTtl.toMillis())));
+
+		return new AuthenticationResponse(jwtUtil.generateToken(userName, role, status, tokenVersion), refreshToken);
+	}
+
+	// the token has 256 random bits, so a fast unsalted digest is enough and lookups stay indexed
+	private static String hash(String token) {
+		try {
+			return HexFormat.of().formatHex(
+					MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
@@ -0,0 +1,354 @@
+package com.appartment.facilities.storage;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Resized copies of stored pictures for list screens, produced off the
+ * request thread with the JDK's ImageIO. Derivatives are a cache: they live
+ * in their own directory, bounded in bytes and evicted least recently used
+ * first, and can always be produced again from the original. A missing one
+ * is scheduled on first request. Pictures ImageIO cannot decode, such as
+ * WebP, get no derivatives and are served in full.
+ */
+@Component
+public class PictureDerivatives implements DisposableBean {
+
+	public static final String EXECUTOR_NAME = "pictureDerivatives";
+
+	private static final Logger log = LoggerFactory.getLogger(PictureDerivatives.class);
+
+	// decoding larger images could take hundreds of megabytes of heap
+	private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+
+	public enum Size {
+		THUMBNAIL(64), MEDIUM(512);
+
+		private final int maxDimension;
+
+		Size(int maxDimension) {
+			this.maxDimension = maxDimension;
+		}
+
+		public String pathSegment() {
+			return name().toLowerCase(Locale.ROOT);
+		}
+
+		/**
+		 * The size named by a URL path segment, or null.
+		 */
+		public static Size fromPathSegment(String segment) {
+			for (Size size : values()) {
+				if (size.pathSegment().equals(segment)) {
+					return size;
+				}
+			}
+			return null;
+		}
+	}
+
+	private final PictureStore pictureStore;
+
+	private final Path root;
+
+	private final Path work;
+
+	private final long maxBytes;
+
+	private final ThreadPoolExecutor executor;
+
+	// key is "<id>-<size>", in access order for eviction
+	private final LinkedHashMap<String, Path> files = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Map<String, Long> fileSizes = new HashMap<>();
+
+	private long totalBytes;
+
+	private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+	private final Cache<String, Boolean> undecodable = Caffeine.newBuilder().maximumSize(10_000).build();
+
+	public PictureDerivatives(PictureStore pictureStore,
+			@Value("${picture.derivatives.dir:data/picture-derivatives}") String directory,
+			@Value("${picture.derivatives.max-bytes:268435456}") long maxBytes,
+			@Value("${picture.derivatives.threads:1}") int threads,
+			@Value("${picture.derivatives.queue-capacity:256}") int queueCapacity,
+			MeterRegistry meterRegistry) throws IOException {
+		this.pictureStore = pictureStore;
+		this.root = Paths.get(directory).toAbsolutePath();
+		this.work = Files.createDirectories(root.resolve("tmp"));
+		this.maxBytes = maxBytes;
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("picture-derivative-");
+		threadFactory.setDaemon(true);
+		threadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+		new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+		loadExisting();
+	}
+
+	/**
+	 * URL of a derivative of a picture reference, or null when the reference
+	 * is not a stored picture.
+	 */
+	public static String toUrl(String reference, Size size) {
+		return PictureStore.isId(reference) ? PictureStore.URL_PREFIX + reference + "/" + size.pathSegment() : null;
+	}
+
+	/**
+	 * Schedules every missing derivative of the picture and returns at once.
+	 * When the queue is full the work is dropped; it is picked up again the
+	 * first time a derivative is requested.
+	 */
+	public CompletableFuture<Void> generate(String reference) {
+		if (!PictureStore.isId(reference) || undecodable.getIfPresent(reference) != null || hasAll(reference)) {
+			return CompletableFuture.completedFuture(null);
+		}
+		CompletableFuture<Void> task = new CompletableFuture<>();
+		CompletableFuture<Void> running = inFlight.putIfAbsent(reference, task);
+		if (running != null) {
+			return running;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					produce(reference);
+				} finally {
+					finish(reference, task);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			finish(reference, task);
+		}
+		return task;
+	}
+
+	/**
+	 * The derivative file, or null when it does not exist yet, in which case
+	 * it is scheduled.
+	 */
+	public Path find(String id, Size size) {
+		Path path;
+		synchronized (this) {
+			path = files.get(key(id, size));
+		}
+		if (path == null) {
+			generate(id);
+		}
+		return path;
+	}
+
+	public static MediaType contentType(Path derivative) {
+		return derivative.getFileName().toString().endsWith(".png") ? MediaType.IMAGE_PNG : MediaType.IMAGE_JPEG;
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private void finish(String id, CompletableFuture<Void> task) {
+		inFlight.remove(id, task);
+		task.complete(null);
+	}
+
+	private synchronized boolean hasAll(String id) {
+		for (Size size : Size.values()) {
+			if (!files.containsKey(key(id, size))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void produce(String id) {
+		Path original = pictureStore.find(id);
+		if (original == null) {
+			return;
+		}
+		try {
+			BufferedImage source = decode(original, Size.MEDIUM.maxDimension);
+			if (source == null) {
+				undecodable.put(id, Boolean.TRUE);
+				return;
+			}
+			// largest size first, each smaller one is resized from the previous
+			Size[] sizes = Size.values();
+			BufferedImage image = source;
+			for (int i = sizes.length - 1; i >= 0; i--) {
+				image = resize(image, sizes[i].maxDimension);
+				write(id, sizes[i], image);
+			}
+		} catch (IOException | RuntimeException e) {
+			// possibly transient, such as a full disk, so the next request retries
+			log.warn("Could not produce the derivatives of picture {}", id, e);
+		}
+	}
+
+	/**
+	 * Decodes the picture, subsampled while reading when it is much larger
+	 * than needed, or returns null when ImageIO cannot or should not decode it.
+	 */
+	private static BufferedImage decode(Path original, int maxDimension) throws IOException {
+		try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+			if (!readers.hasNext()) {
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(input, true, true);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				if ((long) width * height > MAX_SOURCE_PIXELS) {
+					return null;
+				}
+				ImageReadParam param = reader.getDefaultReadParam();
+				// keep twice the target size so the final resize still has pixels to average
+				int subsampling = Math.max(1, Math.min(width, height) / (2 * maxDimension));
+				param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				return reader.read(0, param);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	private static BufferedImage resize(BufferedImage image, int maxDimension) {
+		int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		// halve step by step, a single bilinear pass over a large ratio drops most source pixels
+		while (true) {
+			int largest = Math.max(image.getWidth(), image.getHeight());
+			if (largest <= maxDimension && image.getType() == type) {
+				return image;
+			}
+			double scale = Math.max(Math.min(1.0, (double) maxDimension / largest), 0.5);
+			int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+			int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+			BufferedImage resized = new BufferedImage(width, height, type);
+			Graphics2D graphics = resized.createGraphics();
+			try {
+				graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				graphics.drawImage(image, 0, 0, width, height, null);
+			} finally {
+				graphics.dispose();
+			}
+			image = resized;
+		}
+	}
+
+	private void write(String id, Size size, BufferedImage image) throws IOException {
+		boolean png = image.getColorModel().hasAlpha();
+		Path target = root.resolve(id.substring(0, 2)).resolve(key(id, size) + (png ? ".png" : ".jpg"));
+		Path temp = Files.createTempFile(work, "derivative", ".part");
+		try {
+			ImageIO.write(image, png ? "png" : "jpg", temp.toFile());
+			Files.createDirectories(target.getParent());
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		add(key(id, size), target, Files.size(target));
+	}
+
+	private synchronized void add(String key, Path path, long size) {
+		Path previous = files.put(key, path);
+		Long previousSize = fileSizes.put(key, size);
+		totalBytes += size - (previousSize != null ? previousSize : 0);
+		if (previous != null && !previous.equals(path)) {
+			delete(previous);
+		}
+		Iterator<Map.Entry<String, Path>> eldest = files.entrySet().iterator();
+		while (totalBytes > maxBytes && eldest.hasNext()) {
+			Map.Entry<String, Path> evicted = eldest.next();
+			if (evicted.getKey().equals(key)) {
+				break;
+			}
+			eldest.remove();
+			totalBytes -= fileSizes.remove(evicted.getKey());
+			delete(evicted.getValue());
+		}
+	}
+
+	// rebuilds the index after a restart, oldest files first so they are evicted first
+	private void loadExisting() throws IOException {
+		try (Stream<Path> paths = Files.walk(root, 2)) {
+			List<Path> existing = paths.filter(Files::isRegularFile).filter(path -> !path.startsWith(work))
+					.sorted(Comparator.comparingLong(PictureDerivatives::lastModified)).collect(Collectors.toList());
+			for (Path path : existing) {
+				String name = path.getFileName().toString();
+				int extension = name.lastIndexOf('.');
+				if (extension > 0) {
+					add(name.substring(0, extension), path, Files.size(path));
+				}
+			}
+		}
+	}
+
+	private static String key(String id, Size size) {
+		return id + "-" + size.pathSegment();
+	}
+
+	private static long lastModified(Path path) {
+		try {
+			return Files.getLastModifiedTime(path).toMillis();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void delete(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (NoSuchFileException e) {
+			// already gone
+		} catch (IOException e) {
+			log.warn("Could not delete evicted picture derivative {}", path, e);
+		}
+	}
+}
@@ -0,0 +1,237 @@
+package com.appartment.facilities.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.exception.PictureException;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Facility and resident pictures on the local file system, addressed by the
+ * SHA-256 of their content. A row stores only the 64 character id, so list
+ * queries no longer carry image bytes, identical uploads share one file and
+ * a stored file never changes, which makes the id a natural ETag.
+ */
+@Component
+public class PictureStore {
+
+	public static final String URL_PREFIX = "/v1/pictures/";
+
+	private static final Pattern ID = Pattern.compile("[0-9a-f]{64}");
+
+	private static final Pattern DATA_URL_PREFIX = Pattern.compile("^data:[^,]*;base64,", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private static final MediaType IMAGE_WEBP = MediaType.parseMediaType("image/webp");
+
+	// long enough for every signature detected below
+	private static final int SIGNATURE_BYTES = 12;
+
+	@Value("${picture.store.dir:data/pictures}")
+	private String directory = "data/pictures";
+
+	@Value("${picture.store.max-bytes:5242880}")
+	private long maxBytes = 5242880;
+
+	private Path root;
+
+	private Path uploads;
+
+	@PostConstruct
+	public void init() throws IOException {
+		root = Paths.get(directory).toAbsolutePath();
+		uploads = Files.createDirectories(root.resolve("tmp"));
+	}
+
+	public static boolean isId(String value) {
+		return value != null && ID.matcher(value).matches();
+	}
+
+	/**
+	 * The URL a DTO carries for a stored picture reference, or null when the
+	 * reference is neither a stored picture nor an http(s) URL.
+	 */
+	public static String toUrl(String reference) {
+		if (isId(reference)) {
+			return URL_PREFIX + reference;
+		}
+		return isExternalUrl(reference) ? reference : null;
+	}
+
+	/**
+	 * Turns the picture of a create or update request into the reference a
+	 * row stores. Accepts the URL or id of an uploaded picture, an http(s)
+	 * URL, or an inline base64 image, which is written to the store.
+	 */
+	public String resolve(String picture) throws PictureException {
+		if (picture == null || picture.isBlank()) {
+			return null;
+		}
+		String id = picture.startsWith(URL_PREFIX) ? picture.substring(URL_PREFIX.length()) : picture;
+		if (isId(id)) {
+			if (find(id) == null) {
+				throw new PictureException(ValidationConstants.INVALID_PICTURE);
+			}
+			return id;
+		}
+		if (isExternalUrl(picture)) {
+			return picture;
+		}
+		return store(decodeInline(picture));
+	}
+
+	/**
+	 * Streams the picture into the store while hashing it and returns its id.
+	 */
+	public String store(InputStream content) throws PictureException {
+		Path upload = null;
+		try {
+			upload = Files.createTempFile(uploads, "upload", ".part");
+			MessageDigest digest = sha256();
+			byte[] signature = new byte[SIGNATURE_BYTES];
+			int signatureLength = 0;
+			long size = 0;
+			try (OutputStream out = Files.newOutputStream(upload)) {
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = content.read(buffer)) != -1) {
+					size += read;
+					if (size > maxBytes) {
+						throw new PictureException(ValidationConstants.PICTURE_TOO_LARGE + maxBytes);
+					}
+					int copied = Math.min(read, SIGNATURE_BYTES - signatureLength);
+					System.arraycopy(buffer, 0, signature, signatureLength, copied);
+					signatureLength += copied;
+					digest.update(buffer, 0, read);
+					out.write(buffer, 0, read);
+				}
+			}
+			if (contentType(signature, signatureLength) == null) {
+				throw new PictureException(ValidationConstants.INVALID_PICTURE);
+			}
+			String id = HexFormat.of().formatHex(digest.digest());
+			Path target = pathOf(id);
+			if (!Files.exists(target)) {
+				Files.createDirectories(target.getParent());
+				// same content under the same name, so a concurrent upload of it may win
+				Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return id;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			deleteQuietly(upload);
+		}
+	}
+
+	/**
+	 * The file of a stored picture, or null when there is none.
+	 */
+	public Path find(String id) {
+		if (!isId(id)) {
+			return null;
+		}
+		Path path = pathOf(id);
+		return Files.isRegularFile(path) ? path : null;
+	}
+
+	public MediaType contentType(Path picture) throws IOException {
+		ByteBuffer signature = ByteBuffer.allocate(SIGNATURE_BYTES);
+		try (FileChannel channel = FileChannel.open(picture, StandardOpenOption.READ)) {
+			while (signature.hasRemaining() && channel.read(signature) >= 0) {
+				// a file channel fills the buffer unless the file is shorter
+			}
+		}
+		MediaType contentType = contentType(signature.array(), signature.position());
+		return contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM;
+	}
+
+	private Path pathOf(String id) {
+		return root.resolve(id.substring(0, 2)).resolve(id);
+	}
+
+	private String store(byte[] content) throws PictureException {
+		return store(new ByteArrayInputStream(content));
+	}
+
+	private static byte[] decodeInline(String picture) throws PictureException {
+		String base64 = WHITESPACE.matcher(DATA_URL_PREFIX.matcher(picture).replaceFirst("")).replaceAll("");
+		try {
+			return Base64.getDecoder().decode(base64);
+		} catch (IllegalArgumentException e) {
+			throw new PictureException(ValidationConstants.INVALID_PICTURE);
+		}
+	}
+
+	private static boolean isExternalUrl(String value) {
+		return value != null && (value.startsWith("https://") || value.startsWith("http://"));
+	}
+
+	private static MediaType contentType(byte[] head, int length) {
+		if (startsWith(head, length, 0, 0x89, 'P', 'N', 'G')) {
+			return MediaType.IMAGE_PNG;
+		}
+		if (startsWith(head, length, 0, 0xFF, 0xD8, 0xFF)) {
+			return MediaType.IMAGE_JPEG;
+		}
+		if (startsWith(head, length, 0, 'G', 'I', 'F', '8')) {
+			return MediaType.IMAGE_GIF;
+		}
+		if (startsWith(head, length, 0, 'R', 'I', 'F', 'F') && startsWith(head, length, 8, 'W', 'E', 'B', 'P')) {
+			return IMAGE_WEBP;
+		}
+		return null;
+	}
+
+	private static boolean startsWith(byte[] head, int length, int offset, int... signature) {
+		if (length < offset + signature.length) {
+			return false;
+		}
+		for (int i = 0; i < signature.length; i++) {
+			if ((head[offset + i] & 0xFF) != signature[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void deleteQuietly(Path path) {
+		if (path != null) {
+			try {
+				Files.deleteIfExists(path);
+			} catch (IOException e) {
+				// a leftover upload only wastes space in the tmp directory
+			}
+		}
+	}
+}
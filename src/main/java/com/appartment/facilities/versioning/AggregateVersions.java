@@ -0,0 +1,93 @@
+package com.appartment.facilities.versioning;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version counters of the aggregates that clients poll, bumped by the
+ * service layer after every write. An ETag built from a counter lets a
+ * controller answer a conditional GET with 304 before loading or
+ * serializing anything. No Last-Modified is sent: at one-second resolution
+ * it cannot tell apart two writes within the same second.
+ *
+ * Counters live in this process only. The startup epoch keeps ETags from
+ * an earlier run or another node from matching, and the staleness window
+ * rolls every ETag over periodically so writes made on other nodes are
+ * picked up within that window. A zero window disables the roll-over.
+ */
+@Component
+public class AggregateVersions {
+
+	public enum Aggregate {
+		FACILITIES, USERS, BOOKINGS
+	}
+
+	private final long epoch = System.currentTimeMillis();
+
+	private final Map<Aggregate, AtomicLong> versions = new EnumMap<>(Aggregate.class);
+
+	@Value("${http.etag.max-staleness:30s}")
+	private Duration maxStaleness = Duration.ofSeconds(30);
+
+	public AggregateVersions() {
+		for (Aggregate aggregate : Aggregate.values()) {
+			versions.put(aggregate, new AtomicLong());
+		}
+	}
+
+	/**
+	 * Call after the write. Inside a transaction the counters move only once
+	 * it has committed, so an ETag is never newer than the data served with it.
+	 */
+	public void bump(Aggregate... aggregates) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					increment(aggregates);
+				}
+			});
+		} else {
+			increment(aggregates);
+		}
+	}
+
+	/**
+	 * Strong ETag of the current state of the aggregate. Read it before the
+	 * data it describes.
+	 */
+	public String etag(Aggregate aggregate) {
+		return "\"" + tag(aggregate) + "\"";
+	}
+
+	/**
+	 * Strong ETag of one entity of the aggregate. The id is part of the tag,
+	 * so representations of different entities never share a validator.
+	 */
+	public String etag(Aggregate aggregate, int id) {
+		return "\"" + tag(aggregate) + "-" + id + "\"";
+	}
+
+	private String tag(Aggregate aggregate) {
+		return aggregate.name().toLowerCase(Locale.ROOT) + "-" + Long.toString(epoch, 36) + "-"
+				+ Long.toString(window(), 36) + "-" + versions.get(aggregate).get();
+	}
+
+	private void increment(Aggregate... aggregates) {
+		for (Aggregate aggregate : aggregates) {
+			versions.get(aggregate).incrementAndGet();
+		}
+	}
+
+	private long window() {
+		return maxStaleness.isZero() ? 0 : System.currentTimeMillis() / maxStaleness.toMillis();
+	}
+}
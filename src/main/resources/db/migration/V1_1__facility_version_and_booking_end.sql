@@ -0,0 +1,5 @@
+-- Optimistic lock version of a facility, checked when a booking is admitted.
+alter table facility add column version integer default 0;
+
+-- End of the booked slot; older rows keep null and last the default slot length.
+alter table booking add column event_end_date datetime(6);
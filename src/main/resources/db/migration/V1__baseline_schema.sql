@@ -0,0 +1,60 @@
+-- Schema as previously generated by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version and skip this script.
+
+create table user_table (
+    id integer not null,
+    user_name varchar(255),
+    password varchar(255),
+    role varchar(255),
+    status varchar(255),
+    primary key (id)
+);
+
+create table manager (
+    id integer not null,
+    name varchar(255),
+    phone varchar(255),
+    email varchar(255),
+    primary key (id),
+    constraint fk_manager_user_table foreign key (id) references user_table (id)
+);
+
+create table resident (
+    id integer not null,
+    name varchar(255),
+    flat_no varchar(255),
+    flat_type varchar(255),
+    phone varchar(255),
+    email varchar(255),
+    picture varchar(255),
+    primary key (id),
+    constraint fk_resident_user_table foreign key (id) references user_table (id)
+);
+
+create table facility (
+    id integer not null,
+    name varchar(255),
+    status varchar(255),
+    description varchar(255),
+    picture varchar(255),
+    primary key (id)
+);
+
+create table booking (
+    id integer not null,
+    booking_date datetime(6),
+    facility_id integer,
+    resident_id integer,
+    event_date datetime(6),
+    status varchar(255),
+    primary key (id)
+);
+
+create table user_table_seq (next_val bigint);
+insert into user_table_seq values (1);
+
+create table facility_seq (next_val bigint);
+insert into facility_seq values (1);
+
+create table booking_seq (next_val bigint);
+insert into booking_seq values (1);
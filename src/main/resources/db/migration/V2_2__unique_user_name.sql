@@ -0,0 +1,4 @@
+-- JwtRequestFilter looks the user up by name on every authenticated request,
+-- and UsernameIndex relies on this index to reject a taken name at insert.
+-- V2_1 has checked that no two users share a name.
+create unique index uk_user_table_user_name on user_table (user_name);
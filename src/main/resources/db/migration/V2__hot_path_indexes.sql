@@ -0,0 +1,8 @@
+-- Each booking filter followed by id, so a keyset page on an equality filter
+-- and the per-facility availability reload are a single index range. An
+-- event date range can only use idx_booking_event_date to find its rows,
+-- which are then sorted by id.
+create index idx_booking_status_id on booking (status, id);
+create index idx_booking_facility_id on booking (facility_id, id);
+create index idx_booking_resident_id on booking (resident_id, id);
+create index idx_booking_event_date on booking (event_date, id);
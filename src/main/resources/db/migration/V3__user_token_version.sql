@@ -0,0 +1,7 @@
+-- Minimum accepted token version per user name, only for users whose tokens
+-- were ever revoked. Rows outlive the user so a deleted account stays revoked.
+create table user_token_version (
+    user_name varchar(255) not null,
+    min_version integer not null,
+    primary key (user_name)
+);
@@ -0,0 +1,17 @@
+-- Refresh tokens are stored as the SHA-256 of the token, never the token.
+-- All tokens rotated from one login share a family_id, so reuse of a
+-- consumed token can revoke the whole chain.
+create table refresh_token (
+    token_hash varchar(64) not null,
+    family_id varchar(36) not null,
+    user_name varchar(255) not null,
+    role varchar(255),
+    status varchar(255),
+    token_version integer not null,
+    expires_at datetime(6) not null,
+    used_at datetime(6),
+    primary key (token_hash)
+);
+
+create index idx_refresh_token_family_id on refresh_token (family_id);
+create index idx_refresh_token_expires_at on refresh_token (expires_at);
@@ -0,0 +1,9 @@
+-- Access tokens revoked before their expiry, by JWT id. Rows are purged
+-- once the token would have expired anyway.
+create table revoked_token (
+    jti varchar(64) not null,
+    expires_at datetime(6) not null,
+    primary key (jti)
+);
+
+create index idx_revoked_token_expires_at on revoked_token (expires_at);
@@ -0,0 +1,193 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.appartment.facilities.availability.BookingAvailabilityIndex;
+import com.appartment.facilities.availability.FacilityCatalogue;
+import com.appartment.facilities.availability.FacilityLockRegistry;
+import com.appartment.facilities.constants.MessageConstants;
+import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.dto.BookingDto;
+import com.appartment.facilities.entity.Booking;
+import com.appartment.facilities.exception.BookingException;
+import com.appartment.facilities.repository.BookingRepository;
+import com.appartment.facilities.repository.FacilityRepository;
+import com.appartment.facilities.repository.ResidentRepository;
+import com.appartment.facilities.service.impl.BookingServiceImpl;
+import com.appartment.facilities.versioning.AggregateVersions;
+
+@SpringBootTest
+public class BookingAdmissionStressTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final int FACILITIES = 4;
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 8000;
+
+    @Mock(stubOnly = true)
+    private BookingRepository bookingRepository;
+
+    @Mock(stubOnly = true)
+    private ResidentRepository residentRepository;
+
+    @Mock(stubOnly = true)
+    private FacilityRepository facilityRepository;
+
+    @Mock(stubOnly = true)
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private BookingAvailabilityIndex availabilityIndex = new BookingAvailabilityIndex();
+
+    @Spy
+    private FacilityLockRegistry facilityLockRegistry = new FacilityLockRegistry();
+
+    @Spy
+    private FacilityCatalogue facilityCatalogue = new FacilityCatalogue();
+
+    @Spy
+    private AggregateVersions aggregateVersions = new AggregateVersions();
+
+    @InjectMocks
+    private BookingServiceImpl bookingService;
+
+    private final Map<Integer, Booking> storedBookings = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> facilityVersions = new ConcurrentHashMap<>();
+    private final AtomicInteger bookingIds = new AtomicInteger();
+    private final AtomicInteger versionConflicts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        for (int id = 1; id <= FACILITIES; id++) {
+            facilityVersions.put(id, new AtomicInteger());
+        }
+
+        when(residentRepository.existsById(anyInt())).thenReturn(true);
+        when(facilityRepository.findVersionById(anyInt()))
+                .thenAnswer(invocation -> facilityVersions.get(invocation.<Integer>getArgument(0)).get());
+        when(facilityRepository.updateStatusIfVersionMatches(anyInt(), any(), anyInt())).thenAnswer(invocation -> {
+            Integer id = invocation.getArgument(0);
+            Integer expectedVersion = invocation.getArgument(2);
+            AtomicInteger version = facilityVersions.get(id);
+            // simulates a writer on another node touching the facility now and then
+            if (ThreadLocalRandom.current().nextInt(20) == 0) {
+                version.incrementAndGet();
+            }
+            if (!version.compareAndSet(expectedVersion, expectedVersion + 1)) {
+                versionConflicts.incrementAndGet();
+                return 0;
+            }
+            return 1;
+        });
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(bookingIds.incrementAndGet());
+            storedBookings.put(booking.getId(), booking);
+            return booking;
+        });
+        when(bookingRepository.findActiveByFacilityIdEndingAfter(anyInt(), anyCollection(), any(), any())).thenAnswer(invocation -> {
+            Integer facilityId = invocation.getArgument(0);
+            return storedBookings.values().stream().filter(booking -> booking.getFacilityId().equals(facilityId))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    void testConcurrentCreateBookingNeverDoubleBooks() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = new ArrayList<>();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    bookingService.createBooking(randomBooking());
+                    admitted.incrementAndGet();
+                } catch (BookingException e) {
+                    if (!e.getMessage().equals(ValidationConstants.SLOT_ALREADY_BOOKED)
+                            && !e.getMessage().equals(MessageConstants.BOOKING_CONFLICT)) {
+                        synchronized (unexpected) {
+                            unexpected.add(e);
+                        }
+                    }
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    synchronized (unexpected) {
+                        unexpected.add(e);
+                    }
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        long elapsedNanos = System.nanoTime() - begin;
+
+        System.out.printf("createBooking stress: %d requests on %d threads in %d ms (%.0f req/s), "
+                + "%d admitted, %d rejected, %d version conflicts retried%n", REQUESTS, THREADS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), REQUESTS / (elapsedNanos / 1e9), admitted.get(),
+                rejected.get(), versionConflicts.get());
+
+        assertTrue(unexpected.isEmpty(), () -> "unexpected failures: " + unexpected);
+        assertEquals(REQUESTS, admitted.get() + rejected.get());
+        assertEquals(admitted.get(), storedBookings.size());
+        assertTrue(rejected.get() > 0, "the workload should contain overlapping requests");
+
+        Map<Integer, List<Booking>> byFacility = storedBookings.values().stream()
+                .collect(Collectors.groupingBy(Booking::getFacilityId));
+        for (List<Booking> bookings : byFacility.values()) {
+            bookings.sort(Comparator.comparing(Booking::getEventDate));
+            for (int i = 1; i < bookings.size(); i++) {
+                Booking previous = bookings.get(i - 1);
+                Booking current = bookings.get(i);
+                assertTrue(!previous.getEventEndDate().after(current.getEventDate()),
+                        () -> "double booking: " + previous + " overlaps " + current);
+            }
+        }
+    }
+
+    private BookingDto randomBooking() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = random.nextInt(2000) * HOUR;
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setFacilityId(1 + random.nextInt(FACILITIES));
+        bookingDto.setResidentId(1);
+        bookingDto.setEventDate(new Date(start));
+        bookingDto.setEventEndDate(new Date(start + (1 + random.nextInt(3)) * HOUR));
+        return bookingDto;
+    }
+}
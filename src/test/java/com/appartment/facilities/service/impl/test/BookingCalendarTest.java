@@ -0,0 +1,99 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.appartment.facilities.constants.MessageConstants;
+import com.appartment.facilities.dto.BookingCalendarEntryDto;
+import com.appartment.facilities.dto.BookingCalendarPageDto;
+import com.appartment.facilities.dto.BookingFilterDto;
+import com.appartment.facilities.entity.Booking;
+import com.appartment.facilities.entity.Facility;
+import com.appartment.facilities.entity.Resident;
+import com.appartment.facilities.exception.BookingException;
+import com.appartment.facilities.instrumentation.SqlStatementCounter;
+import com.appartment.facilities.repository.BookingRepository;
+import com.appartment.facilities.repository.FacilityRepository;
+import com.appartment.facilities.repository.ResidentRepository;
+import com.appartment.facilities.service.BookingService;
+
+@SpringBootTest
+public class BookingCalendarTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private ResidentRepository residentRepository;
+
+    private Facility facility;
+    private Resident resident;
+
+    @BeforeEach
+    void setUp() {
+        facility = facilityRepository.save(new Facility(null, "Rooftop", "Available", "Terrace", null));
+        resident = residentRepository.save(new Resident("calendar" + System.nanoTime(), "secret", "Resident",
+                "Active", "Calendar Resident", "B-204", "3BHK", "9876543210", "calendar@example.com", null));
+        for (int i = 0; i < 5; i++) {
+            Booking booking = new Booking();
+            booking.setFacilityId(facility.getId());
+            booking.setResidentId(resident.getId());
+            booking.setEventDate(new Date(HOUR * i));
+            booking.setEventEndDate(new Date(HOUR * (i + 1)));
+            booking.setStatus(i == 4 ? MessageConstants.BOOKING_CANCELLED : "Pending");
+            bookingRepository.save(booking);
+        }
+    }
+
+    @Test
+    void testCalendarPageIsJoinedInOneQuery() throws BookingException {
+        BookingFilterDto filter = new BookingFilterDto();
+        filter.setFacilityId(facility.getId());
+
+        SqlStatementCounter.reset();
+        BookingCalendarPageDto firstPage = bookingService.getCalendar(filter, null, 3);
+        assertEquals(1, SqlStatementCounter.current());
+
+        List<BookingCalendarEntryDto> entries = firstPage.getEntries();
+        assertEquals(3, entries.size());
+        assertEquals("Rooftop", entries.get(0).getFacilityName());
+        assertEquals("Calendar Resident", entries.get(0).getResidentName());
+        assertEquals("B-204", entries.get(0).getResidentFlatNo());
+
+        // the cancelled booking is left out of the calendar
+        BookingCalendarPageDto secondPage = bookingService.getCalendar(filter, firstPage.getNextCursor(), 3);
+        assertEquals(1, secondPage.getEntries().size());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void testCalendarFiltersByDateRangeAndStatus() throws BookingException {
+        BookingFilterDto filter = new BookingFilterDto();
+        filter.setResidentId(resident.getId());
+        filter.setFrom(new Date(HOUR));
+        filter.setTo(new Date(HOUR * 3));
+
+        assertEquals(2, bookingService.getCalendar(filter, null, 10).getEntries().size());
+
+        filter = new BookingFilterDto();
+        filter.setFacilityId(facility.getId());
+        filter.setStatus(MessageConstants.BOOKING_CANCELLED);
+        assertEquals(1, bookingService.getCalendar(filter, null, 10).getEntries().size());
+    }
+}
@@ -0,0 +1,96 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.appartment.facilities.dto.BookingExportFormat;
+import com.appartment.facilities.entity.Booking;
+import com.appartment.facilities.exception.BookingException;
+import com.appartment.facilities.repository.BookingRepository;
+import com.appartment.facilities.service.BookingService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+public class BookingExportTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private int facilityId;
+
+    @BeforeEach
+    void setUp() {
+        facilityId = (int) (System.nanoTime() & 0xffffff) + 200000;
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Booking booking = new Booking();
+            booking.setFacilityId(facilityId);
+            booking.setResidentId(1);
+            booking.setEventDate(new Date(i * 1000L));
+            booking.setStatus(i == 0 ? "Pending, \"urgent\"" : "Pending");
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void testNdjsonExportWritesOneObjectPerLine() throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : export(BookingExportFormat.NDJSON)) {
+            JsonNode row = objectMapper.readTree(line);
+            if (row.get("facilityId").asInt() == facilityId) {
+                rows.add(row);
+            }
+        }
+
+        assertEquals(ROWS, rows.size());
+        for (int i = 1; i < rows.size(); i++) {
+            assertTrue(rows.get(i - 1).get("id").asInt() < rows.get(i).get("id").asInt());
+        }
+    }
+
+    @Test
+    void testCsvExportQuotesValues() throws IOException {
+        List<String> lines = export(BookingExportFormat.CSV);
+        List<String> rows = lines.stream().filter(line -> line.contains("," + facilityId + ","))
+                .collect(Collectors.toList());
+
+        assertEquals("id,bookingDate,facilityId,residentId,eventDate,eventEndDate,status", lines.get(0));
+        assertEquals(ROWS, rows.size());
+        assertTrue(rows.get(0).endsWith(",1970-01-01T00:00:00Z,,\"Pending, \"\"urgent\"\"\""), rows.get(0));
+    }
+
+    @Test
+    void testUnknownFormatIsRejected() {
+        assertThrows(BookingException.class, () -> BookingExportFormat.of("xlsx"));
+    }
+
+    private List<String> export(BookingExportFormat format) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        bookingService.exportBookings(format, outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,112 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.appartment.facilities.dto.BookingDto;
+import com.appartment.facilities.dto.BookingFilterDto;
+import com.appartment.facilities.dto.BookingPageDto;
+import com.appartment.facilities.entity.Booking;
+import com.appartment.facilities.exception.BookingException;
+import com.appartment.facilities.instrumentation.SqlStatementCounter;
+import com.appartment.facilities.repository.BookingRepository;
+import com.appartment.facilities.service.BookingService;
+
+@SpringBootTest
+public class BookingPaginationTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private int facilityId;
+
+    @BeforeEach
+    void setUp() {
+        // a facility id no other test uses, so the filter isolates this test's rows
+        facilityId = (int) (System.nanoTime() & 0xffffff) + 100000;
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Booking booking = new Booking();
+            booking.setFacilityId(facilityId);
+            booking.setResidentId(i % 2 == 0 ? 1 : 2);
+            booking.setEventDate(new Date(HOUR * i));
+            booking.setEventEndDate(new Date(HOUR * (i + 1)));
+            booking.setStatus(i % 5 == 0 ? "Cancelled" : "Pending");
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void testPagesCoverEveryRowOnceInIdOrder() throws BookingException {
+        BookingFilterDto filter = new BookingFilterDto();
+        filter.setFacilityId(facilityId);
+
+        List<Integer> seen = new ArrayList<>();
+        Integer cursor = null;
+        int pages = 0;
+        do {
+            SqlStatementCounter.reset();
+            BookingPageDto page = bookingService.getBookings(filter, cursor, 10);
+            assertEquals(1, SqlStatementCounter.current(), "a page is a single query without a count");
+            page.getBookings().forEach(booking -> seen.add(booking.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(25, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1) < seen.get(i));
+        }
+    }
+
+    @Test
+    void testGetAllBookingListsEveryMatchingRow() {
+        BookingFilterDto filter = new BookingFilterDto();
+        filter.setFacilityId(facilityId);
+        filter.setStatus("Cancelled");
+
+        List<BookingDto> bookings = bookingService.getAllBooking(filter);
+
+        assertEquals(5, bookings.size());
+        for (int i = 1; i < bookings.size(); i++) {
+            assertTrue(bookings.get(i - 1).getId() < bookings.get(i).getId());
+        }
+    }
+
+    @Test
+    void testFiltersCombine() throws BookingException {
+        BookingFilterDto filter = new BookingFilterDto();
+        filter.setFacilityId(facilityId);
+        filter.setResidentId(1);
+        filter.setStatus("Pending");
+        filter.setFrom(new Date(HOUR * 4));
+        filter.setTo(new Date(HOUR * 20));
+
+        BookingPageDto page = bookingService.getBookings(filter, null, 50);
+
+        // even hours 4..18 belong to resident 1, minus the cancelled 10
+        assertEquals(7, page.getBookings().size());
+        assertNull(page.getNextCursor());
+        for (BookingDto booking : page.getBookings()) {
+            assertEquals(1, booking.getResidentId());
+            assertEquals("Pending", booking.getStatus());
+        }
+    }
+}
@@ -1,35 +1,62 @@
 package com.appartment.facilities.service.impl.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
-
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.appartment.facilities.availability.BookingAvailabilityIndex;
+import com.appartment.facilities.availability.FacilityCatalogue;
+import com.appartment.facilities.availability.FacilityLockRegistry;
 import com.appartment.facilities.constants.MessageConstants;
 import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.dto.BatchBookingResponseDto;
 import com.appartment.facilities.dto.BookingDto;
+import com.appartment.facilities.dto.BookingFilterDto;
+import com.appartment.facilities.dto.BookingPageDto;
 import com.appartment.facilities.dto.CreateBookingResponseDto;
 import com.appartment.facilities.entity.Booking;
-import com.appartment.facilities.entity.Facility;
 import com.appartment.facilities.entity.Resident;
 import com.appartment.facilities.exception.BookingException;
 import com.appartment.facilities.repository.BookingRepository;
 import com.appartment.facilities.repository.FacilityRepository;
+import com.appartment.facilities.repository.FacilityVersion;
 import com.appartment.facilities.repository.ResidentRepository;
 import com.appartment.facilities.service.impl.BookingServiceImpl;
+import com.appartment.facilities.versioning.AggregateVersions;
 
 @SpringBootTest
 public class BookingServiceImplTest {
@@ -43,9 +70,32 @@ public class BookingServiceImplTest {
     @Mock
     private FacilityRepository facilityRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private BookingAvailabilityIndex availabilityIndex = new BookingAvailabilityIndex();
+
+    @Spy
+    private FacilityLockRegistry facilityLockRegistry = new FacilityLockRegistry();
+
+    @Spy
+    private FacilityCatalogue facilityCatalogue = new FacilityCatalogue();
+
+    @Spy
+    private AggregateVersions aggregateVersions = new AggregateVersions();
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    private final AtomicInteger bookingIds = new AtomicInteger();
+
+    private final AtomicInteger facilityVersion = new AtomicInteger();
+
+    private final Map<Integer, Booking> storedBookings = new ConcurrentHashMap<>();
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -56,6 +106,7 @@ public class BookingServiceImplTest {
         BookingDto bookingDto = new BookingDto();
         bookingDto.setFacilityId(1);
         bookingDto.setResidentId(1);
+        bookingDto.setEventDate(new Date(HOUR * 10));
 
         Booking booking = new Booking();
         booking.setId(1);
@@ -63,33 +114,197 @@ public class BookingServiceImplTest {
         booking.setResidentId(1);
         booking.setStatus("Pending");
 
-        Facility facility = new Facility();
-        facility.setId(1);
-        facility.setStatus("Available");
-
-        when(residentRepository.findById(1)).thenReturn(Optional.of(new Resident()));
-        when(facilityRepository.findById(1)).thenReturn(Optional.of(facility));
+        when(residentRepository.existsById(1)).thenReturn(true);
+        when(facilityRepository.findVersionById(1)).thenReturn(0);
+        when(facilityRepository.updateStatusIfVersionMatches(1, "Occupied", 0)).thenReturn(1);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         CreateBookingResponseDto responseDto = bookingService.createBooking(bookingDto);
 
         assertEquals(MessageConstants.BOOKING_STATUS_SUCCESS, responseDto.getMessage());
         assertNotNull(responseDto.getBookingDto().getId());
-        verify(facilityRepository).save(any(Facility.class));
+        assertEquals(new Date(HOUR * 11), responseDto.getBookingDto().getEventEndDate());
+        verify(facilityRepository, times(1)).findVersionById(1);
+        verify(facilityRepository, never()).findById(any());
+        verify(facilityRepository).updateStatusIfVersionMatches(1, "Occupied", 0);
+    }
+
+    @Test
+    public void testCreateBookingRejectsOverlappingSlot() throws BookingException {
+        stubBookableFacility();
+
+        bookingService.createBooking(bookingFor(HOUR * 10, HOUR * 12));
+
+        BookingException exception = assertThrows(BookingException.class, () -> {
+            bookingService.createBooking(bookingFor(HOUR * 11, HOUR * 13));
+        });
+
+        assertEquals(ValidationConstants.SLOT_ALREADY_BOOKED, exception.getMessage());
+    }
+
+    @Test
+    public void testCreateBookingAcceptsAdjacentSlots() throws BookingException {
+        stubBookableFacility();
+
+        bookingService.createBooking(bookingFor(HOUR * 10, HOUR * 12));
+        CreateBookingResponseDto responseDto = bookingService.createBooking(bookingFor(HOUR * 12, HOUR * 13));
+
+        assertEquals(MessageConstants.BOOKING_STATUS_SUCCESS, responseDto.getMessage());
     }
 
     @Test
-    public void testGetAllBooking() {
+    public void testCreateBookingWithEndBeforeStart() {
+        stubBookableFacility();
+
+        BookingException exception = assertThrows(BookingException.class, () -> {
+            bookingService.createBooking(bookingFor(HOUR * 12, HOUR * 10));
+        });
+
+        assertEquals(ValidationConstants.INVALID_EVENT_END_DATE, exception.getMessage());
+    }
+
+    @Test
+    public void testCreateBookingRetriesAfterVersionConflict() throws BookingException {
+        stubBookableFacility();
+        availabilityIndex.setVersion(1, 0);
+        // another node books the facility between the version read and the update
+        when(facilityRepository.findVersionById(1)).thenReturn(0, 1, 2);
+        when(facilityRepository.updateStatusIfVersionMatches(any(), any(), any())).thenReturn(0).thenReturn(1);
+
+        CreateBookingResponseDto responseDto = bookingService.createBooking(bookingFor(HOUR * 10, HOUR * 12));
+
+        assertEquals(MessageConstants.BOOKING_STATUS_SUCCESS, responseDto.getMessage());
+        verify(facilityRepository, times(2)).updateStatusIfVersionMatches(any(), any(), any());
+        verify(facilityRepository).updateStatusIfVersionMatches(1, "Occupied", 1);
+        verify(bookingRepository, times(1)).findActiveByFacilityIdEndingAfter(eq(1), anyCollection(), any(), any());
+
+        // the version this node wrote does not make the index stale
+        bookingService.createBooking(bookingFor(HOUR * 12, HOUR * 14));
+        verify(bookingRepository, times(1)).findActiveByFacilityIdEndingAfter(eq(1), anyCollection(), any(), any());
+    }
+
+    @Test
+    public void testCreateBookingGivesUpAfterRepeatedVersionConflicts() {
+        stubBookableFacility();
+        when(facilityRepository.updateStatusIfVersionMatches(any(), any(), any())).thenReturn(0);
+
+        BookingException exception = assertThrows(BookingException.class, () -> {
+            bookingService.createBooking(bookingFor(HOUR * 10, HOUR * 12));
+        });
+
+        assertEquals(MessageConstants.BOOKING_CONFLICT, exception.getMessage());
+        verify(facilityRepository, times(3)).updateStatusIfVersionMatches(any(), any(), any());
+    }
+
+    @Test
+    public void testCancelBookingReleasesSlot() throws BookingException {
+        stubBookableFacility();
+        CreateBookingResponseDto created = bookingService.createBooking(bookingFor(HOUR * 10, HOUR * 12));
+
         Booking booking = new Booking();
-        booking.setId(1);
+        booking.setId(created.getBookingDto().getId());
         booking.setFacilityId(1);
-        booking.setResidentId(1);
+        booking.setEventDate(new Date(HOUR * 10));
+        booking.setEventEndDate(new Date(HOUR * 12));
+        booking.setStatus("Pending");
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        bookingService.cancelBooking(booking.getId());
+        CreateBookingResponseDto responseDto = bookingService.createBooking(bookingFor(HOUR * 11, HOUR * 13));
 
-        when(bookingRepository.findAll()).thenReturn(Arrays.asList(booking));
+        assertEquals(MessageConstants.BOOKING_STATUS_SUCCESS, responseDto.getMessage());
+    }
+
+    @Test
+    public void testCancelOnOneNodeFreesTheSlotOnAnother() throws BookingException {
+        stubBookableFacility();
+        BookingServiceImpl otherNode = otherNode();
+        CreateBookingResponseDto created = bookingService.createBooking(bookingFor(HOUR * 30, HOUR * 32));
+
+        BookingException exception = assertThrows(BookingException.class,
+                () -> otherNode.createBooking(bookingFor(HOUR * 31, HOUR * 33)));
+        assertEquals(ValidationConstants.SLOT_ALREADY_BOOKED, exception.getMessage());
+
+        bookingService.cancelBooking(created.getBookingDto().getId());
+
+        CreateBookingResponseDto responseDto = otherNode.createBooking(bookingFor(HOUR * 31, HOUR * 33));
+        assertEquals(MessageConstants.BOOKING_STATUS_SUCCESS, responseDto.getMessage());
+    }
+
+    @Test
+    public void testReapprovalSeesBookingsMadeOnAnotherNode() throws BookingException {
+        stubBookableFacility();
+        int declined = bookingService.createBooking(bookingFor(HOUR * 40, HOUR * 42)).getBookingDto().getId();
+        bookingService.approveOrRejectBooking(declined, false);
+        otherNode().createBooking(bookingFor(HOUR * 41, HOUR * 43));
 
-        List<BookingDto> bookings = bookingService.getAllBooking();
+        BookingException exception = assertThrows(BookingException.class,
+                () -> bookingService.approveOrRejectBooking(declined, true));
 
-        assertEquals(1, bookings.size());
+        assertEquals(ValidationConstants.SLOT_ALREADY_BOOKED, exception.getMessage());
+        assertEquals(MessageConstants.BOOKING_DECLINED, storedBookings.get(declined).getStatus());
+    }
+
+    @Test
+    public void testSlotChangesWaitForTheCommit() throws BookingException {
+        stubBookableFacility();
+        CreateBookingResponseDto created = bookingService.createBooking(bookingFor(HOUR * 20, HOUR * 22));
+
+        Booking booking = new Booking();
+        booking.setId(created.getBookingDto().getId());
+        booking.setFacilityId(1);
+        booking.setEventDate(new Date(HOUR * 20));
+        booking.setEventEndDate(new Date(HOUR * 22));
+        booking.setStatus("Pending");
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingService.approveOrRejectBooking(booking.getId(), false);
+            assertFalse(availabilityIndex.isAvailable(1, new Date(HOUR * 20), new Date(HOUR * 22)));
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+            assertTrue(availabilityIndex.isAvailable(1, new Date(HOUR * 20), new Date(HOUR * 22)));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingService.approveOrRejectBooking(booking.getId(), true);
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+            assertTrue(availabilityIndex.isAvailable(1, new Date(HOUR * 20), new Date(HOUR * 22)));
+            assertFalse(((ReentrantLock) facilityLockRegistry.lockFor(1)).isLocked());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testGetBookingsReturnsCursorWhenMoreRowsExist() throws BookingException {
+        List<Booking> rows = new ArrayList<>();
+        for (int id = 1; id <= 3; id++) {
+            Booking booking = new Booking();
+            booking.setId(id);
+            booking.setFacilityId(1);
+            booking.setResidentId(1);
+            rows.add(booking);
+        }
+
+        when(bookingRepository.<Booking, List<Booking>>findBy(any(Specification.class), any())).thenReturn(rows);
+
+        BookingPageDto page = bookingService.getBookings(new BookingFilterDto(), null, 2);
+
+        assertEquals(2, page.getBookings().size());
+        assertEquals(2, page.getNextCursor());
+    }
+
+    @Test
+    public void testGetBookingsRejectsOversizedPage() {
+        BookingException exception = assertThrows(BookingException.class, () -> {
+            bookingService.getBookings(new BookingFilterDto(), null, 10000);
+        });
+
+        assertTrue(exception.getMessage().startsWith(ValidationConstants.INVALID_PAGE_SIZE));
     }
 
     @Test
@@ -139,8 +354,10 @@ public class BookingServiceImplTest {
         BookingDto bookingDto = new BookingDto();
         bookingDto.setFacilityId(1);
         bookingDto.setResidentId(1);
+        bookingDto.setEventDate(new Date(HOUR * 10));
 
-        when(facilityRepository.findById(1)).thenReturn(Optional.empty());
+        when(residentRepository.existsById(1)).thenReturn(true);
+        when(facilityRepository.findVersionById(1)).thenReturn(null);
 
         BookingException exception = assertThrows(BookingException.class, () -> {
             bookingService.createBooking(bookingDto);
@@ -155,12 +372,8 @@ public class BookingServiceImplTest {
         bookingDto.setFacilityId(1);
         bookingDto.setResidentId(1);
 
-        Facility facility = new Facility();
-        facility.setId(1);
-        facility.setStatus("Available");
-
-        when(facilityRepository.findById(1)).thenReturn(Optional.of(facility));
-        when(residentRepository.findById(1)).thenReturn(Optional.empty());
+        when(facilityRepository.findVersionById(1)).thenReturn(0);
+        when(residentRepository.existsById(1)).thenReturn(false);
 
         BookingException exception = assertThrows(BookingException.class, () -> {
             bookingService.createBooking(bookingDto);
@@ -169,6 +382,185 @@ public class BookingServiceImplTest {
         assertEquals(ValidationConstants.INVALID_RESIDENT_FOR_BOOKING, exception.getMessage());
     }
 
+    @Test
+    public void testCreateBookingsReportsEachItem() throws BookingException {
+        stubBookableFacility();
+
+        BookingDto unknownFacility = bookingFor(HOUR * 20, HOUR * 21);
+        unknownFacility.setFacilityId(2);
+        List<BookingDto> batch = Arrays.asList(bookingFor(HOUR * 10, HOUR * 12), bookingFor(HOUR * 11, HOUR * 13),
+                unknownFacility, bookingFor(HOUR * 12, HOUR * 13), bookingFor(HOUR * 15, HOUR * 14));
+
+        BatchBookingResponseDto responseDto = bookingService.createBookings(batch);
+
+        assertEquals(2, responseDto.getCreated());
+        assertEquals(3, responseDto.getFailed());
+        assertTrue(responseDto.getResults().get(0).isSuccess());
+        assertNotNull(responseDto.getResults().get(0).getBookingDto().getId());
+        assertEquals(ValidationConstants.SLOT_ALREADY_BOOKED, responseDto.getResults().get(1).getMessage());
+        assertEquals(ValidationConstants.INVALID_FACILITY_FOR_BOOKING, responseDto.getResults().get(2).getMessage());
+        assertTrue(responseDto.getResults().get(3).isSuccess());
+        assertEquals(ValidationConstants.INVALID_EVENT_END_DATE, responseDto.getResults().get(4).getMessage());
+        assertFalse(availabilityIndex.isAvailable(1, new Date(HOUR * 12), new Date(HOUR * 13)));
+
+        verify(facilityRepository, times(1)).findVersionsByIdIn(anyCollection());
+        verify(residentRepository, times(1)).findAllById(anyIterable());
+        verify(facilityRepository, times(1)).updateStatusIfVersionMatches(any(), any(), any());
+        verify(bookingRepository, times(1)).saveAll(anyIterable());
+    }
 
-}
+    @Test
+    public void testAvailabilityIndexKeepsLegacySlotsSharingAStart() {
+        availabilityIndex.reload(1, 0, Arrays.asList(activeBooking(1, HOUR * 10, HOUR * 11),
+                activeBooking(2, HOUR * 10, HOUR * 13)));
+
+        assertFalse(availabilityIndex.isAvailable(1, new Date(HOUR * 12), new Date(HOUR * 12 + HOUR / 2)));
+        availabilityIndex.release(1, 2, new Date(HOUR * 10));
+        assertTrue(availabilityIndex.isAvailable(1, new Date(HOUR * 12), new Date(HOUR * 12 + HOUR / 2)));
+        assertFalse(availabilityIndex.isAvailable(1, new Date(HOUR * 10), new Date(HOUR * 10 + HOUR / 2)));
+    }
+
+    @Test
+    public void testAvailabilityIndexSeesOverlappingLegacySlots() {
+        availabilityIndex.reload(1, 0, Arrays.asList(activeBooking(1, HOUR * 10, HOUR * 14),
+                activeBooking(2, HOUR * 11, HOUR * 12)));
+
+        assertFalse(availabilityIndex.isAvailable(1, new Date(HOUR * 13), new Date(HOUR * 13 + HOUR / 2)));
+        assertTrue(availabilityIndex.isAvailable(1, new Date(HOUR * 14), new Date(HOUR * 15)));
+        availabilityIndex.release(1, 2, new Date(HOUR * 11));
+        assertFalse(availabilityIndex.occupancy(1, 22, 28).isEmpty());
+    }
+
+    @Test
+    public void testAvailabilityIndexPrunesEndedSlots() {
+        long upcoming = System.currentTimeMillis() + HOUR;
+        availabilityIndex.reserve(1, 1, new Date(HOUR * 10), new Date(HOUR * 11));
+        availabilityIndex.reserve(1, 2, new Date(upcoming), new Date(upcoming + HOUR));
+
+        availabilityIndex.prune();
+
+        assertTrue(availabilityIndex.isAvailable(1, new Date(HOUR * 10), new Date(HOUR * 11)));
+        assertTrue(availabilityIndex.occupancy(1, 0, 48).isEmpty());
+        assertFalse(availabilityIndex.isAvailable(1, new Date(upcoming), new Date(upcoming + HOUR)));
+    }
+
+    @Test
+    public void testCreateBookingsRetriesAfterVersionConflict() throws BookingException {
+        stubBookableFacility();
+        when(facilityRepository.updateStatusIfVersionMatches(any(), any(), any())).thenReturn(0, 1);
+
+        BatchBookingResponseDto responseDto = bookingService
+                .createBookings(Arrays.asList(bookingFor(HOUR * 10, HOUR * 12), bookingFor(HOUR * 12, HOUR * 14)));
+
+        assertEquals(2, responseDto.getCreated());
+        verify(facilityRepository, times(2)).findVersionsByIdIn(anyCollection());
+        verify(bookingRepository, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    public void testCreateBookingsWithEmptyBatch() {
+        BookingException exception = assertThrows(BookingException.class, () -> {
+            bookingService.createBookings(Collections.emptyList());
+        });
+
+        assertEquals(ValidationConstants.EMPTY_BOOKING_BATCH, exception.getMessage());
+    }
+
+    private void stubBookableFacility() {
+        Resident resident = new Resident();
+        resident.setId(1);
+
+        when(residentRepository.existsById(1)).thenReturn(true);
+        when(residentRepository.findAllById(anyIterable())).thenReturn(List.of(resident));
+        // the facility row and the booking table shared by every node of a test
+        when(facilityRepository.findVersionById(1)).thenAnswer(invocation -> facilityVersion.get());
+        when(facilityRepository.findVersionsByIdIn(anyCollection()))
+                .thenAnswer(invocation -> List.of(facilityVersion(1, facilityVersion.get())));
+        when(facilityRepository.updateStatusIfVersionMatches(any(), any(), any())).thenAnswer(
+                invocation -> bumpIfMatches(invocation.getArgument(2)));
+        when(facilityRepository.incrementVersionIfMatches(any(), any())).thenAnswer(
+                invocation -> bumpIfMatches(invocation.getArgument(1)));
+        when(bookingRepository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(
+                storedBookings.get(invocation.<Integer>getArgument(0))));
+        when(bookingRepository.findActiveByFacilityIdEndingAfter(eq(1), anyCollection(), any(), any()))
+                .thenAnswer(invocation -> storedBookings.values().stream()
+                        .filter(booking -> !BookingAvailabilityIndex.isReleased(booking.getStatus())).toList());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking saved = invocation.getArgument(0);
+            if (saved.getId() == null) {
+                saved.setId(bookingIds.incrementAndGet());
+            }
+            storedBookings.put(saved.getId(), saved);
+            return saved;
+        });
+        when(bookingRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Booking> saved = new ArrayList<>();
+            for (Booking booking : (Iterable<Booking>) invocation.getArgument(0)) {
+                booking.setId(bookingIds.incrementAndGet());
+                storedBookings.put(booking.getId(), booking);
+                saved.add(booking);
+            }
+            return saved;
+        });
+    }
+
+    private int bumpIfMatches(Integer version) {
+        return version != null && facilityVersion.compareAndSet(version, version + 1) ? 1 : 0;
+    }
 
+    // another node: same database, its own index, locks and caches
+    private BookingServiceImpl otherNode() {
+        BookingServiceImpl node = new BookingServiceImpl();
+        ReflectionTestUtils.setField(node, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(node, "residentRepository", residentRepository);
+        ReflectionTestUtils.setField(node, "facilityRepository", facilityRepository);
+        ReflectionTestUtils.setField(node, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(node, "availabilityIndex", new BookingAvailabilityIndex());
+        ReflectionTestUtils.setField(node, "facilityLockRegistry", new FacilityLockRegistry());
+        ReflectionTestUtils.setField(node, "facilityCatalogue", new FacilityCatalogue());
+        ReflectionTestUtils.setField(node, "aggregateVersions", new AggregateVersions());
+        return node;
+    }
+
+    private static FacilityVersion facilityVersion(int id, int version) {
+        return new FacilityVersion() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private static Booking activeBooking(int id, long start, long end) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setFacilityId(1);
+        booking.setEventDate(new Date(start));
+        booking.setEventEndDate(new Date(end));
+        booking.setStatus("Approved");
+        return booking;
+    }
+
+    private BookingDto bookingFor(long start, long end) {
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setFacilityId(1);
+        bookingDto.setResidentId(1);
+        bookingDto.setEventDate(new Date(start));
+        bookingDto.setEventEndDate(new Date(end));
+        return bookingDto;
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
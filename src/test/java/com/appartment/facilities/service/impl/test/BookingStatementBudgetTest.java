@@ -0,0 +1,125 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.appartment.facilities.availability.BookingAvailabilityIndex;
+import com.appartment.facilities.dto.BatchBookingResponseDto;
+import com.appartment.facilities.dto.BookingDto;
+import com.appartment.facilities.entity.Facility;
+import com.appartment.facilities.entity.Resident;
+import com.appartment.facilities.exception.BookingException;
+import com.appartment.facilities.instrumentation.SqlStatementCounter;
+import com.appartment.facilities.repository.FacilityRepository;
+import com.appartment.facilities.repository.ResidentRepository;
+import com.appartment.facilities.service.BookingService;
+
+@SpringBootTest
+public class BookingStatementBudgetTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    // resident existence check, facility version read, versioned facility update, booking insert
+    // and an occasional id block fetch
+    private static final int CREATE_BOOKING_BUDGET = 5;
+
+    // booking lookup and booking update
+    private static final int APPROVE_OR_REJECT_BUDGET = 2;
+
+    // booking lookup, facility version read and increment, booking update
+    private static final int CANCEL_BUDGET = 4;
+
+    // resident lookup, facility version read, one versioned facility update, id block fetches
+    // and the batched booking inserts, independent of the number of bookings
+    private static final int BATCH_SIZE = 40;
+    private static final int CREATE_BOOKINGS_BUDGET = 6;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ResidentRepository residentRepository;
+
+    private Facility facility;
+    private Resident resident;
+
+    private static long nextSlot = 1000;
+
+    @BeforeEach
+    void setUp() {
+        facility = facilityRepository.save(new Facility(null, "Clubhouse", "Available", "Party hall", null));
+        // budgets are for the steady state, where the index has already seen the facility
+        availabilityIndex.setVersion(facility.getId(), facility.getVersion());
+        resident = residentRepository.save(new Resident("budget" + System.nanoTime(), "secret", "Resident",
+                "Active", "Budget Resident", "A-101", "2BHK", "9876543210", "budget@example.com", null));
+    }
+
+    @Test
+    void testCreateBookingStaysWithinStatementBudget() throws BookingException {
+        SqlStatementCounter.reset();
+        bookingService.createBooking(nextBooking());
+        assertWithinBudget("createBooking", CREATE_BOOKING_BUDGET);
+    }
+
+    @Test
+    void testApproveOrRejectBookingStaysWithinStatementBudget() throws BookingException {
+        int bookingId = bookingService.createBooking(nextBooking()).getBookingDto().getId();
+
+        SqlStatementCounter.reset();
+        bookingService.approveOrRejectBooking(bookingId, true);
+        assertWithinBudget("approveOrRejectBooking", APPROVE_OR_REJECT_BUDGET);
+    }
+
+    @Test
+    void testCancelBookingStaysWithinStatementBudget() throws BookingException {
+        int bookingId = bookingService.createBooking(nextBooking()).getBookingDto().getId();
+
+        SqlStatementCounter.reset();
+        bookingService.cancelBooking(bookingId);
+        assertWithinBudget("cancelBooking", CANCEL_BUDGET);
+    }
+
+    @Test
+    void testCreateBookingsStaysWithinStatementBudget() throws BookingException {
+        List<BookingDto> batch = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(nextBooking());
+        }
+
+        SqlStatementCounter.reset();
+        BatchBookingResponseDto responseDto = bookingService.createBookings(batch);
+        assertEquals(BATCH_SIZE, responseDto.getCreated());
+        assertWithinBudget("createBookings", CREATE_BOOKINGS_BUDGET);
+    }
+
+    private BookingDto nextBooking() {
+        long start = HOUR * nextSlot++;
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setFacilityId(facility.getId());
+        bookingDto.setResidentId(resident.getId());
+        bookingDto.setEventDate(new Date(start));
+        bookingDto.setEventEndDate(new Date(start + HOUR));
+        return bookingDto;
+    }
+
+    private static void assertWithinBudget(String operation, int budget) {
+        int statements = SqlStatementCounter.current();
+        assertTrue(statements <= budget,
+                () -> operation + " ran " + statements + " SQL statements, budget is " + budget);
+    }
+}
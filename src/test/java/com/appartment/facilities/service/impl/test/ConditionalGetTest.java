@@ -0,0 +1,123 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.appartment.facilities.controller.FacilityController;
+import com.appartment.facilities.dto.FacilityDto;
+import com.appartment.facilities.exception.FacilityException;
+import com.appartment.facilities.service.FacilityService;
+import com.appartment.facilities.versioning.AggregateVersions;
+import com.appartment.facilities.versioning.AggregateVersions.Aggregate;
+
+@SpringBootTest
+public class ConditionalGetTest {
+
+    @Autowired
+    private FacilityController facilityController;
+
+    @Autowired
+    private FacilityService facilityService;
+
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testMatchingIfNoneMatch_answers304UntilAWrite() throws FacilityException {
+        ResponseEntity<?> first = facilityController.getAllFacilities(null, null, null, request(null).webRequest);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+        assertEquals("no-cache, private", first.getHeaders().getCacheControl());
+
+        PollRequest poll = request(etag);
+        assertNull(facilityController.getAllFacilities(null, null, null, poll.webRequest));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), poll.response.getStatus());
+        assertEquals(etag, poll.response.getHeader(HttpHeaders.ETAG));
+        assertEquals("no-cache, private", poll.response.getHeader(HttpHeaders.CACHE_CONTROL));
+
+        FacilityDto facilityDto = new FacilityDto();
+        facilityDto.setName("Tennis court");
+        facilityDto.setDescription("Clay court");
+        facilityService.createFacility(facilityDto);
+
+        ResponseEntity<?> changed = facilityController.getAllFacilities(null, null, null, request(etag).webRequest);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    @Test
+    void testEntityEtag_differsPerId() throws FacilityException {
+        int first = createFacility("Squash court").getId();
+        int second = createFacility("Sauna").getId();
+
+        String etag = facilityController.getFacilityById(first, request(null).webRequest).getHeaders().getETag();
+        assertNotEquals(etag, aggregateVersions.etag(Aggregate.FACILITIES, second));
+
+        PollRequest poll = request(etag);
+        ResponseEntity<?> other = facilityController.getFacilityById(second, poll.webRequest);
+        assertEquals(HttpStatus.OK, other.getStatusCode());
+        assertEquals(aggregateVersions.etag(Aggregate.FACILITIES, second), other.getHeaders().getETag());
+    }
+
+    @Test
+    void testBumpInsideTransaction_waitsForCommit() {
+        String before = aggregateVersions.etag(Aggregate.BOOKINGS);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            aggregateVersions.bump(Aggregate.BOOKINGS);
+            assertEquals(before, aggregateVersions.etag(Aggregate.BOOKINGS));
+        });
+        assertNotEquals(before, aggregateVersions.etag(Aggregate.BOOKINGS));
+
+        String committed = aggregateVersions.etag(Aggregate.BOOKINGS);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            aggregateVersions.bump(Aggregate.BOOKINGS);
+            status.setRollbackOnly();
+        });
+        assertEquals(committed, aggregateVersions.etag(Aggregate.BOOKINGS));
+    }
+
+    private FacilityDto createFacility(String name) throws FacilityException {
+        FacilityDto facilityDto = new FacilityDto();
+        facilityDto.setName(name);
+        facilityDto.setDescription(name);
+        return facilityService.createFacility(facilityDto).getFacilityDto();
+    }
+
+    private static PollRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/facility/getall");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        return new PollRequest(new ServletWebRequest(request, response), response);
+    }
+
+    private static final class PollRequest {
+        private final ServletWebRequest webRequest;
+        private final MockHttpServletResponse response;
+
+        private PollRequest(ServletWebRequest webRequest, MockHttpServletResponse response) {
+            this.webRequest = webRequest;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.appartment.facilities.repository.UserAuthProjection;
+import com.appartment.facilities.repository.UserRepository;
+import com.appartment.facilities.security.classes.CustomUserDetailsService;
+import com.appartment.facilities.security.classes.UserDetailsCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+public class CustomUserDetailsServiceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5), meterRegistry);
+
+    @InjectMocks
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testLoadUserByUsername_cachesLookup() {
+        when(userRepository.findAuthByUserName("user1")).thenReturn(authView("user1", "Resident"));
+
+        userDetailsService.loadUserByUsername("user1");
+        userDetailsService.loadUserByUsername("user1");
+
+        verify(userRepository, times(1)).findAuthByUserName("user1");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UserDetailsCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UserDetailsCache.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testLoadUserByUsername_reloadsAfterInvalidate() {
+        when(userRepository.findAuthByUserName("user1")).thenReturn(authView("user1", "Resident"),
+                authView("user1", "Manager"));
+
+        userDetailsService.loadUserByUsername("user1");
+        userDetailsCache.invalidate("user1");
+
+        assertEquals("Manager",
+                userDetailsService.loadUserByUsername("user1").getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(2)).findAuthByUserName("user1");
+    }
+
+    @Test
+    void testLoadUserByUsername_doesNotCacheMissingUser() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+
+        verify(userRepository, times(2)).findAuthByUserName("ghost");
+    }
+
+    private static UserAuthProjection authView(String userName, String role) {
+        return new SpelAwareProxyProjectionFactory().createProjection(UserAuthProjection.class,
+                Map.of("userName", userName, "role", role, "password", "encoded", "status", "Active"));
+    }
+}
@@ -2,13 +2,15 @@ package com.appartment.facilities.service.impl.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,16 +19,24 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import com.appartment.facilities.availability.BookingAvailabilityIndex;
+import com.appartment.facilities.availability.FacilityCatalogue;
 import com.appartment.facilities.constants.MessageConstants;
 import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.dto.AvailabilitySlotDto;
 import com.appartment.facilities.dto.CreateFacilityResponseDto;
+import com.appartment.facilities.dto.FacilityAvailabilityDto;
 import com.appartment.facilities.dto.FacilityDto;
 import com.appartment.facilities.entity.Facility;
 import com.appartment.facilities.exception.FacilityException;
 import com.appartment.facilities.repository.FacilityRepository;
 import com.appartment.facilities.service.impl.FacilityServiceImpl;
+import com.appartment.facilities.storage.PictureDerivatives;
+import com.appartment.facilities.storage.PictureStore;
+import com.appartment.facilities.versioning.AggregateVersions;
 
 @SpringBootTest
 public class FacilityServiceImplTest {
@@ -34,9 +44,27 @@ public class FacilityServiceImplTest {
     @Mock
     private FacilityRepository facilityRepository;
 
+    @Spy
+    private BookingAvailabilityIndex availabilityIndex = new BookingAvailabilityIndex();
+
+    @Spy
+    private FacilityCatalogue facilityCatalogue = new FacilityCatalogue();
+
+    @Mock
+    private PictureStore pictureStore;
+
+    @Mock
+    private PictureDerivatives pictureDerivatives;
+
+    @Spy
+    private AggregateVersions aggregateVersions = new AggregateVersions();
+
     @InjectMocks
     private FacilityServiceImpl facilityService;
 
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -65,6 +93,7 @@ public class FacilityServiceImplTest {
         assertNotNull(response.getFacilityDto());
         assertEquals(facility.getId(), response.getFacilityDto().getId());
         assertEquals(facility.getStatus(), response.getFacilityDto().getStatus());
+        assertEquals("Gym", facilityCatalogue.get(1).getName());
 
         verify(facilityRepository, times(1)).save(any(Facility.class));
     }
@@ -162,7 +191,7 @@ public class FacilityServiceImplTest {
         facility.setDescription("Gym facility");
         facility.setPicture("gym.jpg");
 
-        when(facilityRepository.findAll()).thenReturn(Collections.singletonList(facility));
+        facilityCatalogue.put(facility);
 
         List<FacilityDto> facilities = facilityService.getAllFacility();
 
@@ -170,7 +199,29 @@ public class FacilityServiceImplTest {
         assertEquals(1, facilities.size());
         assertEquals(facility.getId(), facilities.get(0).getId());
 
-        verify(facilityRepository, times(1)).findAll();
+        verifyNoInteractions(facilityRepository);
+    }
+
+    @Test
+    void testCatalogueWritesSwapInNewSnapshots() throws FacilityException {
+        facilityCatalogue.put(new Facility(1, "Gym", "Available", "Gym facility", "gym.jpg"));
+        List<FacilityDto> before = facilityService.getAllFacility();
+
+        facilityCatalogue.updateStatus(List.of(1), "Occupied");
+        facilityCatalogue.put(new Facility(2, "Pool", "Available", "Pool facility", "pool.jpg"));
+
+        // earlier readers keep the snapshot they were handed
+        assertEquals(1, before.size());
+        assertEquals("Available", before.get(0).getStatus());
+        assertThrows(UnsupportedOperationException.class, () -> before.add(new FacilityDto()));
+
+        List<FacilityDto> after = facilityService.getAllFacility();
+        assertEquals(2, after.size());
+        assertEquals("Occupied", facilityService.getFacilityById(1).getStatus());
+
+        when(facilityRepository.findById(2)).thenReturn(Optional.of(new Facility(2, "Pool", null, null, null)));
+        facilityService.deleteFacility(2);
+        assertNull(facilityCatalogue.get(2));
     }
 
     @Test
@@ -182,28 +233,26 @@ public class FacilityServiceImplTest {
         facility.setDescription("Gym facility");
         facility.setPicture("gym.jpg");
 
-        when(facilityRepository.findById(facilityId)).thenReturn(Optional.of(facility));
+        facilityCatalogue.put(facility);
 
         FacilityDto facilityDto = facilityService.getFacilityById(facilityId);
 
         assertNotNull(facilityDto);
         assertEquals(facility.getId(), facilityDto.getId());
 
-        verify(facilityRepository, times(1)).findById(facilityId);
+        verifyNoInteractions(facilityRepository);
     }
 
     @Test
     void testGetFacilityById_notFound() {
         int facilityId = 1;
 
-        when(facilityRepository.findById(facilityId)).thenReturn(Optional.empty());
-
         FacilityException exception = assertThrows(FacilityException.class, () -> {
             facilityService.getFacilityById(facilityId);
         });
 
         assertEquals(MessageConstants.FACILITY_NOT_FOUND, exception.getMessage());
-        verify(facilityRepository, times(1)).findById(facilityId);
+        verifyNoInteractions(facilityRepository);
     }
 
     @Test
@@ -255,5 +304,61 @@ public class FacilityServiceImplTest {
         assertEquals(MessageConstants.FACILITY_NOT_FOUND, exception.getMessage());
         verify(facilityRepository, times(1)).findById(facilityId);
     }
-}
 
+    @Test
+    void testGetAvailabilityMergesSlotsFromTheBitmap() throws FacilityException {
+        facilityCatalogue.put(new Facility(1, "Gym", "Available", "Gym facility", null));
+        availabilityIndex.reserve(1, 1, new Date(HOUR * 10), new Date(HOUR * 11));
+        availabilityIndex.reserve(1, 2, new Date(HOUR * 11 + 20 * MINUTE), new Date(HOUR * 12));
+
+        List<AvailabilitySlotDto> slots = facilityService
+                .getAvailability(1, new Date(HOUR * 9), new Date(HOUR * 13)).getSlots();
+
+        assertEquals(3, slots.size());
+        assertSlot(slots.get(0), HOUR * 9, HOUR * 10, false);
+        assertSlot(slots.get(1), HOUR * 10, HOUR * 12, true);
+        assertSlot(slots.get(2), HOUR * 12, HOUR * 13, false);
+        verifyNoInteractions(facilityRepository);
+    }
+
+    @Test
+    void testGetAvailabilityAfterReleaseKeepsPartlyCoveredSlotBusy() throws FacilityException {
+        facilityCatalogue.put(new Facility(1, "Gym", "Available", "Gym facility", null));
+        availabilityIndex.reserve(1, 1, new Date(HOUR * 10), new Date(HOUR * 11 + 10 * MINUTE));
+        availabilityIndex.reserve(1, 2, new Date(HOUR * 11 + 20 * MINUTE), new Date(HOUR * 12));
+        availabilityIndex.release(1, 1, new Date(HOUR * 10));
+
+        FacilityAvailabilityDto availability = facilityService.getAvailability(1, new Date(HOUR * 10),
+                new Date(HOUR * 12));
+
+        assertEquals(30, availability.getSlotMinutes());
+        assertEquals(2, availability.getSlots().size());
+        assertSlot(availability.getSlots().get(0), HOUR * 10, HOUR * 11, false);
+        assertSlot(availability.getSlots().get(1), HOUR * 11, HOUR * 12, true);
+    }
+
+    @Test
+    void testGetAvailabilityOfUnknownFacility() {
+        FacilityException exception = assertThrows(FacilityException.class, () -> {
+            facilityService.getAvailability(99, new Date(HOUR * 10), new Date(HOUR * 12));
+        });
+
+        assertEquals(MessageConstants.FACILITY_NOT_FOUND, exception.getMessage());
+        verifyNoInteractions(facilityRepository);
+    }
+
+    @Test
+    void testGetAvailabilityWithInvalidRange() {
+        FacilityException exception = assertThrows(FacilityException.class, () -> {
+            facilityService.getAvailability(1, new Date(HOUR * 12), new Date(HOUR * 10));
+        });
+
+        assertEquals(ValidationConstants.INVALID_AVAILABILITY_RANGE, exception.getMessage());
+    }
+
+    private static void assertSlot(AvailabilitySlotDto slot, long start, long end, boolean busy) {
+        assertEquals(new Date(start), slot.getStart());
+        assertEquals(new Date(end), slot.getEnd());
+        assertEquals(busy, slot.isBusy());
+    }
+}
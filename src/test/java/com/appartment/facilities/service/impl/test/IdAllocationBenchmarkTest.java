@@ -0,0 +1,118 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.appartment.facilities.entity.Booking;
+import com.appartment.facilities.entity.Resident;
+import com.appartment.facilities.repository.BookingRepository;
+import com.appartment.facilities.repository.ResidentRepository;
+
+/**
+ * Insert throughput with one id per round trip against pooled id blocks.
+ * Run with {@code mvn test -Dtest=IdAllocationBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class IdAllocationBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int INSERTS_PER_THREAD = 1000;
+
+    @Nested
+    @TestPropertySource(properties = { "spring.jpa.properties.appartment.id.block_size=1",
+            "spring.datasource.url=jdbc:h2:mem:idbench1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1" })
+    class OneIdPerRoundTrip extends InsertWorkload {
+    }
+
+    @Nested
+    @TestPropertySource(properties = { "spring.jpa.properties.appartment.id.block_size=50",
+            "spring.datasource.url=jdbc:h2:mem:idbench50;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1" })
+    class PooledBlocks extends InsertWorkload {
+    }
+
+    abstract static class InsertWorkload {
+
+        @Autowired
+        private BookingRepository bookingRepository;
+
+        @Autowired
+        private ResidentRepository residentRepository;
+
+        @Test
+        void testConcurrentBookingInserts() throws InterruptedException {
+            run("booking", thread -> {
+                Booking booking = new Booking();
+                booking.setFacilityId(1 + thread);
+                booking.setResidentId(1);
+                booking.setEventDate(new Date());
+                booking.setStatus("Pending");
+                return bookingRepository.save(booking).getId();
+            });
+        }
+
+        @Test
+        void testConcurrentResidentInserts() throws InterruptedException {
+            AtomicInteger names = new AtomicInteger();
+            run("resident", thread -> residentRepository.save(new Resident("bench" + names.incrementAndGet(),
+                    "secret", "Resident", "Active", "Bench Resident", "A-101", "2BHK", "9876543210",
+                    "bench@example.com", null)).getId());
+        }
+
+        private void run(String entity, Insert insert) throws InterruptedException {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+            Set<Integer> ids = ConcurrentHashMap.newKeySet();
+            AtomicInteger failures = new AtomicInteger();
+
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < INSERTS_PER_THREAD; i++) {
+                            ids.add(insert.insert(thread));
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                });
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+            long elapsedNanos = System.nanoTime() - begin;
+
+            int inserts = THREADS * INSERTS_PER_THREAD;
+            System.out.printf("%s inserts, %s: %d on %d threads in %d ms (%.0f inserts/s)%n",
+                    entity, getClass().getSimpleName(), inserts, THREADS,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), inserts / (elapsedNanos / 1e9));
+
+            assertEquals(0, failures.get());
+            assertEquals(inserts, ids.size(), "every insert should get a distinct id");
+        }
+    }
+
+    @FunctionalInterface
+    interface Insert {
+        Integer insert(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,44 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.appartment.facilities.id.IdBlockSeeder;
+
+@SpringBootTest
+public class IdBlockSeederTest {
+
+    @Autowired
+    private IdBlockSeeder idBlockSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testSeedMovesSequencePastExistingIds() {
+        jdbcTemplate.update("insert into facility (id, name, status, version) values (?, ?, ?, 0)", 5000, "Pool",
+                "Available");
+        jdbcTemplate.update("update facility_seq set next_val = 1");
+
+        idBlockSeeder.seed();
+
+        assertEquals(5001L, nextValue("facility_seq"));
+    }
+
+    @Test
+    void testSeedNeverLowersSequence() {
+        jdbcTemplate.update("update booking_seq set next_val = 100000");
+
+        idBlockSeeder.seed();
+
+        assertEquals(100000L, nextValue("booking_seq"));
+    }
+
+    private long nextValue(String sequence) {
+        return jdbcTemplate.queryForObject("select next_val from " + sequence, Long.class);
+    }
+}
@@ -0,0 +1,120 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.security.classes.TokenDenyList;
+import com.appartment.facilities.security.classes.TokenVersionRegistry;
+import com.appartment.facilities.security.classes.VerifiedTokenCache;
+import com.appartment.facilities.security.config.JwtRequestFilter;
+import com.appartment.facilities.security.config.JwtUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+public class JwtRequestFilterTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private TokenDenyList tokenDenyList;
+
+    @Spy
+    private JwtUtil jwtUtil = new JwtUtil();
+
+    @Spy
+    private VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+
+    @InjectMocks
+    private JwtRequestFilter jwtRequestFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testFilter_authenticatesFromClaimsWithoutUserLookup() throws Exception {
+        when(tokenVersionRegistry.isCurrent("user1", 2)).thenReturn(true);
+
+        Authentication authentication = filter(jwtUtil.generateToken("user1", "Resident", "Active", 2));
+
+        assertEquals("user1", authentication.getName());
+        assertEquals("Resident", authentication.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void testFilter_rejectsRevokedTokenVersion() throws Exception {
+        when(tokenVersionRegistry.isCurrent("user1", 2)).thenReturn(false);
+
+        assertNull(filter(jwtUtil.generateToken("user1", "Resident", "Active", 2)));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void testFilter_rejectsDeniedTokenId() throws Exception {
+        when(tokenVersionRegistry.isCurrent("user1", 0)).thenReturn(true);
+        String jwt = jwtUtil.generateToken("user1", "Resident", "Active", 0);
+        when(tokenDenyList.isDenied(jwtUtil.extractAllClaims(jwt).getId())).thenReturn(true);
+
+        assertNull(filter(jwt));
+    }
+
+    @Test
+    void testFilter_rejectsPendingAccount() throws Exception {
+        when(tokenVersionRegistry.isCurrent("user1", 0)).thenReturn(true);
+
+        assertNull(filter(jwtUtil.generateToken("user1", "Resident", ValidationConstants.USER_APPROVAL_PENDING, 0)));
+    }
+
+    @Test
+    void testFilter_verifiesRepeatedTokenOnce() throws Exception {
+        when(tokenVersionRegistry.isCurrent("user1", 0)).thenReturn(true);
+        String jwt = jwtUtil.generateToken("user1", "Manager", "Active", 0);
+
+        filter(jwt);
+        SecurityContextHolder.clearContext();
+        Authentication authentication = filter(jwt);
+
+        assertEquals("Manager", authentication.getAuthorities().iterator().next().getAuthority());
+        verify(jwtUtil, times(1)).extractAllClaims(jwt);
+    }
+
+    private Authentication filter(String jwt) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + jwt);
+        jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,79 @@
+package com.appartment.facilities.service.impl.test;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.appartment.facilities.security.classes.VerifiedTokenCache;
+import com.appartment.facilities.security.config.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Per-request token verification cost: the previous three parses per
+ * request, a single parse, and a hit in the verified-token cache.
+ * Run with {@code mvn test -Dtest=JwtVerificationBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class JwtVerificationBenchmarkTest {
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmarkTest.class.getName() + ".*")
+                .build()).run();
+    }
+
+    @State(Scope.Benchmark)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public static class TokenVerification {
+
+        private final JwtUtil jwtUtil = new JwtUtil();
+        private final VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(10000, new SimpleMeterRegistry());
+        private String jwt;
+
+        @Setup
+        public void setUp() {
+            jwt = jwtUtil.generateToken("bench", "Resident", "Active", 0);
+            verifiedTokenCache.get(jwt, jwtUtil::extractAllClaims);
+        }
+
+        // extractUsername, then validateToken's extractUsername and extractExpiration
+        @Benchmark
+        public void parseThreeTimes(Blackhole blackhole) {
+            blackhole.consume(jwtUtil.extractAllClaims(jwt).getSubject());
+            blackhole.consume(jwtUtil.extractAllClaims(jwt).getSubject());
+            blackhole.consume(jwtUtil.extractAllClaims(jwt).getExpiration());
+        }
+
+        @Benchmark
+        public Claims parseOnce() {
+            return jwtUtil.extractAllClaims(jwt);
+        }
+
+        @Benchmark
+        public Claims cachedVerification() {
+            return verifiedTokenCache.get(jwt, jwtUtil::extractAllClaims);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.appartment.facilities.availability.FacilityCatalogue;
+import com.appartment.facilities.dto.FacilityPageDto;
+import com.appartment.facilities.dto.ResidentPageDto;
+import com.appartment.facilities.entity.Facility;
+import com.appartment.facilities.entity.Resident;
+import com.appartment.facilities.exception.FacilityException;
+import com.appartment.facilities.exception.ResidentException;
+import com.appartment.facilities.instrumentation.SqlStatementCounter;
+import com.appartment.facilities.repository.FacilityRepository;
+import com.appartment.facilities.repository.ResidentRepository;
+import com.appartment.facilities.service.FacilityService;
+import com.appartment.facilities.service.ResidentService;
+
+@SpringBootTest
+public class ListingProjectionTest {
+
+    @Autowired
+    private ResidentService residentService;
+
+    @Autowired
+    private ResidentRepository residentRepository;
+
+    @Autowired
+    private FacilityService facilityService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private FacilityCatalogue facilityCatalogue;
+
+    @Test
+    void testGetResidents_readsOnlyTheRequestedColumns() throws ResidentException {
+        List<Resident> residents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            residents.add(residentRepository.save(new Resident("picker" + System.nanoTime(), "encoded", "Resident",
+                    "Active", "Picker " + i, "B-10" + i, "2BHK", "9876543210", "picker@example.com", null)));
+        }
+        Integer before = residents.get(0).getId() - 1;
+
+        SqlStatementCounter.reset();
+        ResidentPageDto page = residentService.getResidents(List.of("flatNo", "name"), before, 2);
+
+        assertEquals(1, SqlStatementCounter.current());
+        String sql = RecordingStatementInspector.lastStatement();
+        assertFalse(sql.contains("email") || sql.contains("phone") || sql.contains("picture")
+                || sql.contains("password"), sql);
+        assertEquals(2, page.getResidents().size());
+        // response order follows the field list of the endpoint, not the request
+        assertEquals(List.of("name", "flatNo"), List.copyOf(page.getResidents().get(0).keySet()));
+        assertEquals(Map.of("name", "Picker 1", "flatNo", "B-101"), page.getResidents().get(1));
+        assertEquals(residents.get(1).getId(), page.getNextCursor());
+
+        ResidentPageDto next = residentService.getResidents(List.of("id", "userName"), page.getNextCursor(), 2);
+        assertEquals(residents.get(2).getId(), next.getResidents().get(0).get("id"));
+        assertEquals(residents.get(2).getUserName(), next.getResidents().get(0).get("userName"));
+    }
+
+    @Test
+    void testGetResidents_rejectsUnknownFieldsAndPageSizes() {
+        assertThrows(ResidentException.class, () -> residentService.getResidents(List.of("password"), null, 10));
+        assertThrows(ResidentException.class, () -> residentService.getResidents(null, null, 0));
+    }
+
+    @Test
+    void testGetFacilities_pagesTheCatalogue() throws FacilityException {
+        List<Facility> facilities = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Facility facility = facilityRepository.save(new Facility(null, "Court " + i, "Available", "Court", null));
+            facilityCatalogue.put(facility);
+            facilities.add(facility);
+        }
+        Integer before = facilities.get(0).getId() - 1;
+
+        FacilityPageDto page = facilityService.getFacilities(List.of("name"), before, 1);
+
+        assertEquals(List.of(Map.of("name", "Court 0")), page.getFacilities());
+        assertEquals(facilities.get(0).getId(), page.getNextCursor());
+        FacilityPageDto next = facilityService.getFacilities(null, page.getNextCursor(), 1);
+        assertEquals(facilities.get(1).getId(), next.getFacilities().get(0).get("id"));
+        assertNull(next.getFacilities().get(0).get("pictureThumbnail"));
+        assertThrows(FacilityException.class, () -> facilityService.getFacilities(List.of("version"), null, 10));
+    }
+}
@@ -0,0 +1,162 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.appartment.facilities.entity.Resident;
+import com.appartment.facilities.entity.User;
+import com.appartment.facilities.instrumentation.SqlStatementCounter;
+import com.appartment.facilities.repository.ResidentRepository;
+import com.appartment.facilities.repository.UserRepository;
+import com.appartment.facilities.security.classes.AuthenticationRequest;
+import com.appartment.facilities.security.classes.CustomUserDetailsService;
+import com.appartment.facilities.security.classes.RefreshTokenRequest;
+import com.appartment.facilities.security.config.JwtUtil;
+import com.appartment.facilities.service.UserService;
+
+/**
+ * A login storm of distinct users, as after every token expiry, through the
+ * previous three-lookup flow and through {@link UserService#login}, and the
+ * same number of renewals through {@link UserService#refresh}.
+ * Run with {@code mvn test -Dtest=LoginThroughputBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class LoginThroughputBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int LOGINS = 400;
+    private static final String PASSWORD = "secret";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResidentRepository residentRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private List<String> usernames;
+
+    @BeforeEach
+    void setUp() {
+        String hash = passwordEncoder.encode(PASSWORD);
+        String prefix = "login" + System.nanoTime() + "-";
+        List<Resident> residents = new ArrayList<>();
+        usernames = new ArrayList<>();
+        for (int i = 0; i < LOGINS; i++) {
+            usernames.add(prefix + i);
+            residents.add(new Resident(prefix + i, hash, "Resident", "Active", "Login Resident", "A-101", "2BHK",
+                    "9876543210", "login@example.com", null));
+        }
+        residentRepository.saveAll(residents);
+    }
+
+    @Test
+    void testThreeLookupLogin() throws InterruptedException {
+        run("three-lookup login", username -> {
+            User user = userRepository.findByUserName(username);
+            assertEquals("Active", user.getStatus());
+            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, PASSWORD));
+            userDetailsService.loadUserByUsername(username);
+            jwtUtil.generateToken(username, user.getRole(), user.getStatus(), 0);
+        });
+    }
+
+    @Test
+    void testSingleLookupLogin() throws InterruptedException {
+        run("single-lookup login", username -> {
+            AuthenticationRequest request = new AuthenticationRequest();
+            request.setUsername(username);
+            request.setPassword(PASSWORD);
+            userService.login(request);
+        });
+    }
+
+    @Test
+    void testRefreshTokenRenewal() throws Exception {
+        // one login per chain up front, then the storm renews through the refresh chains
+        List<AtomicReference<String>> chains = new ArrayList<>();
+        for (String username : usernames.subList(0, THREADS)) {
+            AuthenticationRequest request = new AuthenticationRequest();
+            request.setUsername(username);
+            request.setPassword(PASSWORD);
+            chains.add(new AtomicReference<>(userService.login(request).getRefreshToken()));
+        }
+        AtomicInteger next = new AtomicInteger();
+        run("refresh-token renewal", username -> {
+            AtomicReference<String> chain = chains.get(next.getAndIncrement() % THREADS);
+            synchronized (chain) {
+                RefreshTokenRequest request = new RefreshTokenRequest();
+                request.setRefreshToken(chain.get());
+                chain.set(userService.refresh(request).getRefreshToken());
+            }
+        });
+    }
+
+    private void run(String flow, Login login) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger statements = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        for (String username : usernames) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    SqlStatementCounter.reset();
+                    login.login(username);
+                    statements.addAndGet(SqlStatementCounter.current());
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        long elapsedNanos = System.nanoTime() - begin;
+
+        System.out.printf("%s: %d requests on %d threads in %d ms (%.0f req/s), %.2f SQL statements per request%n",
+                flow, LOGINS, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), LOGINS / (elapsedNanos / 1e9),
+                statements.get() / (double) LOGINS);
+        assertEquals(0, failures.get());
+    }
+
+    @FunctionalInterface
+    private interface Login {
+        void login(String username) throws Exception;
+    }
+}
@@ -17,16 +17,25 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.appartment.facilities.constants.MessageConstants;
+import com.appartment.facilities.constants.ValidationConstants;
 import com.appartment.facilities.dto.CreateManagerResponseDto;
 import com.appartment.facilities.dto.ManagerDto;
 import com.appartment.facilities.entity.Manager;
+import com.appartment.facilities.entity.Resident;
 import com.appartment.facilities.exception.ManagerException;
+import com.appartment.facilities.exception.ResidentException;
 import com.appartment.facilities.repository.ManagerRepository;
+import com.appartment.facilities.repository.UserRepository;
+import com.appartment.facilities.security.classes.TokenVersionRegistry;
+import com.appartment.facilities.security.classes.UserDetailsCache;
+import com.appartment.facilities.security.classes.UsernameIndex;
 import com.appartment.facilities.service.impl.ManagerServiceImpl;
+import com.appartment.facilities.versioning.AggregateVersions;
 
 @SpringBootTest
 public class ManagerServiceImplTest {
@@ -35,7 +44,22 @@ public class ManagerServiceImplTest {
     private ManagerRepository managerRepository;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private UsernameIndex usernameIndex;
+
+    @Spy
+    private AggregateVersions aggregateVersions = new AggregateVersions();
 
     @InjectMocks
     private ManagerServiceImpl managerService;
@@ -117,6 +141,25 @@ public class ManagerServiceImplTest {
         verify(managerRepository, times(1)).findById(managerId);
         verify(passwordEncoder, times(1)).encode(managerDto.getPassword());
         verify(managerRepository, times(1)).save(any(Manager.class));
+        verify(userDetailsCache).invalidate("testuser", "updatedUser");
+        verify(tokenVersionRegistry).revoke("testuser", "updatedUser");
+    }
+
+    @Test
+    void testApproveSignUp_invalidatesCachedUser() throws ResidentException {
+        Resident resident = new Resident();
+        resident.setUserName("pendingUser");
+        resident.setStatus(ValidationConstants.USER_APPROVAL_PENDING);
+
+        when(userRepository.findByUserName("pendingUser")).thenReturn(resident);
+
+        String response = managerService.approveSignUp("pendingUser");
+
+        assertEquals("SignUp approved for user: pendingUser", response);
+        assertEquals("Active", resident.getStatus());
+        verify(userRepository, times(1)).save(resident);
+        verify(userDetailsCache).invalidate("pendingUser");
+        verify(tokenVersionRegistry).revoke("pendingUser");
     }
 
 
@@ -0,0 +1,153 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.appartment.facilities.controller.PictureController;
+import com.appartment.facilities.storage.PictureDerivatives;
+import com.appartment.facilities.storage.PictureDerivatives.Size;
+import com.appartment.facilities.storage.PictureStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+public class PictureDerivativesTest {
+
+    @Autowired
+    private PictureStore pictureStore;
+
+    @Autowired
+    private PictureDerivatives pictureDerivatives;
+
+    @Autowired
+    private PictureController pictureController;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testGenerate_resizesWithinTheBoundingBox() throws Exception {
+        String id = pictureStore.store(new ByteArrayInputStream(image(1600, 1200, Color.BLUE, false, "jpg")));
+
+        pictureDerivatives.generate(id).get(30, TimeUnit.SECONDS);
+
+        BufferedImage thumbnail = ImageIO.read(pictureDerivatives.find(id, Size.THUMBNAIL).toFile());
+        assertEquals(64, thumbnail.getWidth());
+        assertEquals(48, thumbnail.getHeight());
+        BufferedImage medium = ImageIO.read(pictureDerivatives.find(id, Size.MEDIUM).toFile());
+        assertEquals(512, medium.getWidth());
+        assertEquals(384, medium.getHeight());
+        assertEquals(PictureStore.URL_PREFIX + id + "/thumbnail", PictureDerivatives.toUrl(id, Size.THUMBNAIL));
+        assertNull(PictureDerivatives.toUrl("https://cdn.example.com/gym.jpg", Size.THUMBNAIL));
+    }
+
+    @Test
+    void testGenerate_keepsTransparencyAsPng() throws Exception {
+        String id = pictureStore.store(new ByteArrayInputStream(image(100, 50, Color.RED, true, "png")));
+
+        pictureDerivatives.generate(id).get(30, TimeUnit.SECONDS);
+
+        Path thumbnail = pictureDerivatives.find(id, Size.THUMBNAIL);
+        assertEquals(MediaType.IMAGE_PNG, PictureDerivatives.contentType(thumbnail));
+        BufferedImage image = ImageIO.read(thumbnail.toFile());
+        assertTrue(image.getColorModel().hasAlpha());
+        assertEquals(64, image.getWidth());
+        assertEquals(32, image.getHeight());
+    }
+
+    @Test
+    void testDownload_servesTheOriginalUntilTheDerivativeExists() throws Exception {
+        byte[] original = image(800, 600, Color.GREEN, false, "jpg");
+        String id = pictureStore.store(new ByteArrayInputStream(original));
+
+        MockHttpServletResponse pending = download(id, "thumbnail");
+        assertEquals(HttpStatus.OK.value(), pending.getStatus());
+        assertEquals("private, no-cache", pending.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertArrayEquals(original, pending.getContentAsByteArray());
+
+        pictureDerivatives.generate(id).get(30, TimeUnit.SECONDS);
+
+        MockHttpServletResponse resized = download(id, "thumbnail");
+        assertEquals(MediaType.IMAGE_JPEG_VALUE, resized.getContentType());
+        assertEquals("\"" + id + "-thumbnail\"", resized.getHeader(HttpHeaders.ETAG));
+        assertEquals(64, ImageIO.read(new ByteArrayInputStream(resized.getContentAsByteArray())).getWidth());
+        assertEquals(HttpStatus.NOT_FOUND.value(), download(id, "huge").getStatus());
+    }
+
+    @Test
+    void testEviction_dropsTheLeastRecentlyUsedFiles() throws Exception {
+        String first = pictureStore.store(new ByteArrayInputStream(image(640, 480, Color.ORANGE, false, "jpg")));
+        String second = pictureStore.store(new ByteArrayInputStream(image(640, 480, Color.PINK, false, "jpg")));
+
+        // a one byte budget keeps only the file written last
+        PictureDerivatives bounded = new PictureDerivatives(pictureStore, directory.toString(), 1, 1, 4,
+                new SimpleMeterRegistry());
+        try {
+            bounded.generate(first).get(30, TimeUnit.SECONDS);
+            bounded.generate(second).get(30, TimeUnit.SECONDS);
+            assertFalse(Files.exists(directory.resolve(first.substring(0, 2)).resolve(first + "-thumbnail.jpg")));
+            assertFalse(Files.exists(directory.resolve(second.substring(0, 2)).resolve(second + "-medium.jpg")));
+            assertTrue(Files.exists(directory.resolve(second.substring(0, 2)).resolve(second + "-thumbnail.jpg")));
+        } finally {
+            bounded.destroy();
+        }
+
+        PictureDerivatives restarted = new PictureDerivatives(pictureStore, directory.toString(), Long.MAX_VALUE, 1,
+                4, new SimpleMeterRegistry());
+        try {
+            assertNotNull(restarted.find(second, Size.THUMBNAIL));
+        } finally {
+            restarted.destroy();
+        }
+    }
+
+    private MockHttpServletResponse download(String id, String size) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PictureStore.URL_PREFIX + id + "/" + size);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        pictureController.downloadPictureDerivative(id, size, request, response);
+        return response;
+    }
+
+    private static byte[] image(int width, int height, Color color, boolean alpha, String format) throws Exception {
+        BufferedImage image = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.setColor(Color.WHITE);
+        graphics.fillOval(width / 2, 0, width / 2, height);
+        // a new picture on every run, the derivative directory outlives the test
+        graphics.setColor(new Color(ThreadLocalRandom.current().nextInt(0x1000000)));
+        graphics.fillRect(0, 0, 16, 16);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
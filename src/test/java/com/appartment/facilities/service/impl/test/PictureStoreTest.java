@@ -0,0 +1,150 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.controller.PictureController;
+import com.appartment.facilities.db.migration.V6__Move_inline_pictures_to_store;
+import com.appartment.facilities.entity.Facility;
+import com.appartment.facilities.exception.PictureException;
+import com.appartment.facilities.repository.FacilityRepository;
+import com.appartment.facilities.storage.PictureStore;
+
+@SpringBootTest
+public class PictureStoreTest {
+
+    @Autowired
+    private PictureStore pictureStore;
+
+    @Autowired
+    private PictureController pictureController;
+
+    @Autowired
+    private V6__Move_inline_pictures_to_store migration;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void testStore_isContentAddressed() throws PictureException {
+        byte[] png = png(1000);
+
+        String id = pictureStore.store(new ByteArrayInputStream(png));
+
+        assertTrue(PictureStore.isId(id));
+        assertEquals(id, pictureStore.store(new ByteArrayInputStream(png)));
+        assertEquals(id, pictureStore.resolve("data:image/png;base64," + Base64.getEncoder().encodeToString(png)));
+        assertEquals(id, pictureStore.resolve(PictureStore.URL_PREFIX + id));
+        assertEquals(PictureStore.URL_PREFIX + id, PictureStore.toUrl(id));
+        assertEquals("https://cdn.example.com/gym.jpg", pictureStore.resolve("https://cdn.example.com/gym.jpg"));
+    }
+
+    @Test
+    void testStore_rejectsWhatIsNotAnImage() {
+        PictureException exception = assertThrows(PictureException.class,
+                () -> pictureStore.store(new ByteArrayInputStream("not an image".getBytes())));
+        assertEquals(ValidationConstants.INVALID_PICTURE, exception.getMessage());
+
+        assertThrows(PictureException.class, () -> pictureStore.resolve("gym.jpg"));
+        assertThrows(PictureException.class, () -> pictureStore.resolve("0".repeat(64)));
+        assertNull(PictureStore.toUrl("gym.jpg"));
+    }
+
+    @Test
+    void testDownload_servesRangesAndRevalidates() throws Exception {
+        byte[] png = png(5000);
+        String id = pictureStore.store(new ByteArrayInputStream(png));
+
+        MockHttpServletResponse full = download(id, null, null);
+        assertEquals(HttpStatus.OK.value(), full.getStatus());
+        assertEquals(MediaType.IMAGE_PNG_VALUE, full.getContentType());
+        assertArrayEquals(png, full.getContentAsByteArray());
+        assertEquals("\"" + id + "\"", full.getHeader(HttpHeaders.ETAG));
+
+        MockHttpServletResponse partial = download(id, "bytes=100-199", null);
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(), partial.getStatus());
+        assertEquals("bytes 100-199/5000", partial.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(png, 100, 200), partial.getContentAsByteArray());
+
+        MockHttpServletResponse suffix = download(id, "bytes=-10", null);
+        assertArrayEquals(Arrays.copyOfRange(png, 4990, 5000), suffix.getContentAsByteArray());
+
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value(), download(id, "bytes=5000-", null).getStatus());
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), download(id, null, "\"" + id + "\"").getStatus());
+        assertEquals(HttpStatus.NOT_FOUND.value(), download("f".repeat(64), null, null).getStatus());
+    }
+
+    @Test
+    void testMigration_movesInlinePicturesOutOfTheRow() throws Exception {
+        byte[] png = png(150);
+        Facility inline = facilityRepository.save(new Facility(null, "Pool", "Available", "Pool",
+                Base64.getEncoder().encodeToString(png)));
+        Facility legacy = facilityRepository.save(new Facility(null, "Gym", "Available", "Gym", "gym.jpg"));
+
+        Context context = mock(Context.class);
+        try (Connection connection = dataSource.getConnection()) {
+            when(context.getConnection()).thenReturn(connection);
+            migration.migrate(context);
+        }
+
+        String moved = jdbcTemplate.queryForObject("select picture from facility where id = ?", String.class,
+                inline.getId());
+        assertTrue(PictureStore.isId(moved));
+        assertArrayEquals(png, Files.readAllBytes(pictureStore.find(moved)));
+        assertEquals("gym.jpg", jdbcTemplate.queryForObject("select picture from facility where id = ?",
+                String.class, legacy.getId()));
+    }
+
+    private MockHttpServletResponse download(String id, String range, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PictureStore.URL_PREFIX + id);
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        pictureController.downloadPicture(id, request, response);
+        return response;
+    }
+
+    private static byte[] png(int length) {
+        byte[] png = new byte[length];
+        ThreadLocalRandom.current().nextBytes(png);
+        byte[] signature = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+        System.arraycopy(signature, 0, png, 0, signature.length);
+        return png;
+    }
+}
@@ -0,0 +1,116 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.appartment.facilities.security.config.RateLimitFilter;
+import com.appartment.facilities.security.config.RateLimitProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+public class RateLimitFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRoutes().put("login", route("/auth/login", 2, 0));
+        properties.getRoutes().put("booking-create", route("/v1/booking/create", 100, 2));
+        RateLimitProperties.Route upload = route("/v1/pictures", 1, 0);
+        upload.setMethod("POST");
+        properties.getRoutes().put("picture-upload", upload);
+        rateLimitFilter = new RateLimitFilter(properties, meterRegistry);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testPerIpLimit_rejectsOnceBucketIsEmpty() throws Exception {
+        assertEquals(HttpStatus.OK.value(), call("/auth/login", "10.0.0.1").getStatus());
+        assertEquals(HttpStatus.OK.value(), call("/auth/login", "10.0.0.1").getStatus());
+
+        MockHttpServletResponse rejected = call("/auth/login", "10.0.0.1");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        assertNotNull(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get(RateLimitFilter.REJECTIONS_METRIC).tag("route", "login")
+                .tag("scope", "ip").counter().count());
+        // other clients keep their own bucket
+        assertEquals(HttpStatus.OK.value(), call("/auth/login", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void testPerUserLimit_appliesAcrossAddresses() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user1", null,
+                Collections.singletonList(new SimpleGrantedAuthority("Resident"))));
+
+        assertEquals(HttpStatus.OK.value(), call("/v1/booking/create", "10.0.0.1").getStatus());
+        assertEquals(HttpStatus.OK.value(), call("/v1/booking/create", "10.0.0.2").getStatus());
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), call("/v1/booking/create", "10.0.0.3").getStatus());
+        assertEquals(1.0, meterRegistry.get(RateLimitFilter.REJECTIONS_METRIC).tag("route", "booking-create")
+                .tag("scope", "user").counter().count());
+    }
+
+    @Test
+    void testUnlistedRoute_isNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(HttpStatus.OK.value(), call("/v1/facility/getall", "10.0.0.1").getStatus());
+        }
+    }
+
+    @Test
+    void testMethodScopedRoute_limitsOnlyThatMethod() throws Exception {
+        assertEquals(HttpStatus.OK.value(), call("/v1/pictures", "10.0.0.1").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), call("/v1/pictures", "10.0.0.1").getStatus());
+
+        assertEquals(HttpStatus.OK.value(), call("GET", "/v1/pictures", "10.0.0.1").getStatus());
+    }
+
+    private MockHttpServletResponse call(String path, String remoteAddress) throws Exception {
+        return call("POST", path, remoteAddress);
+    }
+
+    private MockHttpServletResponse call(String method, String path, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static RateLimitProperties.Route route(String path, int ipCapacity, int userCapacity) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPath(path);
+        route.setIpCapacity(ipCapacity);
+        route.setIpRefillPerMinute(ipCapacity);
+        route.setUserCapacity(userCapacity);
+        route.setUserRefillPerMinute(userCapacity);
+        return route;
+    }
+}
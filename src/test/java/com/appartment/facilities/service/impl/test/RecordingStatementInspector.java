@@ -0,0 +1,25 @@
+package com.appartment.facilities.service.impl.test;
+
+import com.appartment.facilities.instrumentation.SqlStatementCounter;
+
+/**
+ * Counts like {@link SqlStatementCounter} and also remembers the last
+ * statement of the thread, so tests can check which columns a query reads.
+ * Registered in application-test.properties.
+ */
+public class RecordingStatementInspector extends SqlStatementCounter {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<String> LAST = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        LAST.set(sql);
+        return super.inspect(sql);
+    }
+
+    public static String lastStatement() {
+        return LAST.get();
+    }
+}
@@ -0,0 +1,57 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.appartment.facilities.entity.RefreshToken;
+import com.appartment.facilities.instrumentation.SqlStatementCounter;
+import com.appartment.facilities.security.classes.JpaRefreshTokenStore;
+
+@SpringBootTest
+public class RefreshTokenStoreTest {
+
+    @Autowired
+    private JpaRefreshTokenStore refreshTokenStore;
+
+    @Test
+    void testSaveFindAndConsumeOnce() {
+        String family = UUID.randomUUID().toString();
+        String hash = UUID.randomUUID().toString().replace("-", "");
+
+        SqlStatementCounter.reset();
+        refreshTokenStore.save(token(hash, family));
+        // assigned ids are inserted without a select first
+        assertEquals(1, SqlStatementCounter.current());
+
+        assertEquals("user1", refreshTokenStore.find(hash).get().getUserName());
+        assertTrue(refreshTokenStore.markUsed(hash, new Date()));
+        assertFalse(refreshTokenStore.markUsed(hash, new Date()));
+    }
+
+    @Test
+    void testRevokeFamily() {
+        String family = UUID.randomUUID().toString();
+        String first = UUID.randomUUID().toString().replace("-", "");
+        String second = UUID.randomUUID().toString().replace("-", "");
+        refreshTokenStore.save(token(first, family));
+        refreshTokenStore.save(token(second, family));
+
+        refreshTokenStore.revokeFamily(family);
+
+        assertFalse(refreshTokenStore.find(first).isPresent());
+        assertFalse(refreshTokenStore.find(second).isPresent());
+    }
+
+    private static RefreshToken token(String hash, String family) {
+        return new RefreshToken(hash, family, "user1", "Resident", "Active", 0,
+                new Date(System.currentTimeMillis() + 60_000));
+    }
+}
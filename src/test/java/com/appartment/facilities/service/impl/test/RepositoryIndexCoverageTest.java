@@ -0,0 +1,132 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+
+import com.appartment.facilities.repository.BookingRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Every derived query in the repository package must lead with a column that
+ * is the first column of an index on the migrated schema, so none of them
+ * turns into a full table scan.
+ */
+@SpringBootTest
+public class RepositoryIndexCoverageTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void testEveryDerivedQueryIsServedByAnIndex() throws SQLException {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Repositories repositories = new Repositories(applicationContext);
+        List<String> checked = new ArrayList<>();
+        List<String> unindexed = new ArrayList<>();
+
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            if (!information.getRepositoryInterface().getPackageName().equals(BookingRepository.class.getPackageName())) {
+                continue;
+            }
+            AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+                    .getEntityDescriptor(domainType);
+
+            for (Method method : information.getQueryMethods()) {
+                // custom fragments such as ResidentRepositoryCustom are implemented by hand
+                if (method.isAnnotationPresent(Query.class)
+                        || !method.getDeclaringClass().equals(information.getRepositoryInterface())) {
+                    continue;
+                }
+                String name = information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                for (String property : leadingProperties(new PartTree(method.getName(), domainType))) {
+                    String table = tableOf(persister, property);
+                    String column = columnOf(persister, property);
+                    checked.add(name);
+                    if (!leadingIndexColumns(table).contains(column)) {
+                        unindexed.add(name + " -> " + table + "." + column);
+                    }
+                }
+            }
+        }
+
+        assertFalse(checked.isEmpty(), "no derived queries found");
+        assertTrue(unindexed.isEmpty(), () -> "derived queries without a supporting index: " + unindexed);
+    }
+
+    // the first criterion of every or-branch, or the sort key when there is no criterion
+    private static List<String> leadingProperties(PartTree tree) {
+        List<String> properties = new ArrayList<>();
+        for (PartTree.OrPart orPart : tree) {
+            for (Part part : orPart) {
+                properties.add(part.getProperty().getSegment());
+                break;
+            }
+        }
+        if (properties.isEmpty()) {
+            for (Sort.Order order : tree.getSort()) {
+                properties.add(order.getProperty());
+                break;
+            }
+        }
+        return properties;
+    }
+
+    private static String tableOf(AbstractEntityPersister persister, String property) {
+        return property.equals(persister.getIdentifierPropertyName()) ? persister.getTableName()
+                : persister.getPropertyTableName(property);
+    }
+
+    private static String columnOf(AbstractEntityPersister persister, String property) {
+        String[] columns = property.equals(persister.getIdentifierPropertyName()) ? persister.getIdentifierColumnNames()
+                : persister.getPropertyColumnNames(property);
+        return columns[0].toLowerCase();
+    }
+
+    private Set<String> leadingIndexColumns(String table) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (var connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, table.toLowerCase(), false,
+                    false)) {
+                while (indexes.next()) {
+                    if (indexes.getShort("ORDINAL_POSITION") == 1) {
+                        columns.add(indexes.getString("COLUMN_NAME").toLowerCase());
+                    }
+                }
+            }
+        }
+        return columns;
+    }
+}
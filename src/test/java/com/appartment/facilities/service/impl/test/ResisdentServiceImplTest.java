@@ -3,11 +3,15 @@ package com.appartment.facilities.service.impl.test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -17,8 +21,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.appartment.facilities.constants.MessageConstants;
 import com.appartment.facilities.constants.ValidationConstants;
@@ -27,7 +33,14 @@ import com.appartment.facilities.dto.ResidentDto;
 import com.appartment.facilities.entity.Resident;
 import com.appartment.facilities.exception.ResidentException;
 import com.appartment.facilities.repository.ResidentRepository;
+import com.appartment.facilities.repository.UserRepository;
+import com.appartment.facilities.security.classes.TokenVersionRegistry;
+import com.appartment.facilities.security.classes.UserDetailsCache;
+import com.appartment.facilities.security.classes.UsernameIndex;
 import com.appartment.facilities.service.impl.ResisdentServiceImpl;
+import com.appartment.facilities.storage.PictureDerivatives;
+import com.appartment.facilities.storage.PictureStore;
+import com.appartment.facilities.versioning.AggregateVersions;
 
 @SpringBootTest
 public class ResisdentServiceImplTest {
@@ -36,7 +49,28 @@ public class ResisdentServiceImplTest {
     private ResidentRepository residentRepository;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UsernameIndex usernameIndex;
+
+    @Mock
+    private PictureStore pictureStore;
+
+    @Mock
+    private PictureDerivatives pictureDerivatives;
+
+    @Spy
+    private AggregateVersions aggregateVersions = new AggregateVersions();
 
     @InjectMocks
     private ResisdentServiceImpl residentService;
@@ -70,10 +104,59 @@ public class ResisdentServiceImplTest {
         assertEquals(MessageConstants.RESIDENT_STATUS_SUCCESS, response.getMessage());
         assertNotNull(response.getResidentDto());
         assertEquals(resident.getId(), response.getResidentDto().getId());
+        verify(usernameIndex).add("user1");
 
         verify(residentRepository, times(1)).save(any(Resident.class));
     }
 
+    @Test
+    void testCreateResident_usernameTaken() {
+        ResidentDto residentDto = new ResidentDto();
+        residentDto.setUserName("user1");
+        residentDto.setPassword("password");
+        residentDto.setEmail("user1@example.com");
+        residentDto.setPhone("1234567890");
+
+        when(usernameIndex.mightExist("user1")).thenReturn(true);
+        when(userRepository.existsByUserName("user1")).thenReturn(true);
+
+        ResidentException exception = assertThrows(ResidentException.class, () -> {
+            residentService.createResident(residentDto);
+        });
+
+        assertEquals(ValidationConstants.USERNAME_EXISTS, exception.getMessage());
+        verify(residentRepository, never()).save(any(Resident.class));
+    }
+
+    @Test
+    void testCreateResident_duplicateInsertMapsToUsernameExists() {
+        ResidentDto residentDto = new ResidentDto();
+        residentDto.setUserName("user1");
+        residentDto.setPassword("password");
+        residentDto.setEmail("user1@example.com");
+        residentDto.setPhone("1234567890");
+
+        // another registration took the name after the availability check
+        when(residentRepository.save(any(Resident.class))).thenThrow(new DataIntegrityViolationException("insert failed",
+                new SQLIntegrityConstraintViolationException(
+                        "Duplicate entry 'user1' for key 'user_table.uk_user_table_user_name'")));
+
+        ResidentException exception = assertThrows(ResidentException.class, () -> {
+            residentService.createResident(residentDto);
+        });
+
+        assertEquals(ValidationConstants.USERNAME_EXISTS, exception.getMessage());
+        verify(usernameIndex, never()).add(anyString());
+    }
+
+    @Test
+    void testIsUsernameAvailable_filterMissSkipsDatabase() {
+        when(usernameIndex.mightExist("freshName")).thenReturn(false);
+
+        assertTrue(residentService.isUsernameAvailable("freshName"));
+        verify(userRepository, never()).existsByUserName(anyString());
+    }
+
     @Test
     void testCreateResident_invalidEmail() {
         ResidentDto residentDto = new ResidentDto();
@@ -132,6 +215,8 @@ public class ResisdentServiceImplTest {
         verify(residentRepository, times(1)).findById(residentId);
         verify(passwordEncoder, times(1)).encode(residentDto.getPassword());
         verify(residentRepository, times(1)).save(any(Resident.class));
+        verify(userDetailsCache).invalidate("user1", "updatedUser");
+        verify(tokenVersionRegistry).revoke("user1", "updatedUser");
     }
 
     @Test
@@ -154,6 +239,7 @@ public class ResisdentServiceImplTest {
         int residentId = 1;
         Resident resident = new Resident();
         resident.setId(residentId);
+        resident.setUserName("user1");
 
         when(residentRepository.findById(residentId)).thenReturn(Optional.of(resident));
 
@@ -164,6 +250,8 @@ public class ResisdentServiceImplTest {
 
         verify(residentRepository, times(1)).findById(residentId);
         verify(residentRepository, times(1)).deleteById(residentId);
+        verify(userDetailsCache).invalidate("user1");
+        verify(tokenVersionRegistry).revoke("user1");
     }
 
     @Test
@@ -0,0 +1,69 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.appartment.facilities.security.classes.BloomFilter;
+import com.appartment.facilities.security.classes.TokenDenyList;
+
+@SpringBootTest
+public class TokenDenyListTest {
+
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testDeny_isCheckedUntilExpiry() {
+        String jti = UUID.randomUUID().toString();
+        tokenDenyList.deny(jti, new Date(System.currentTimeMillis() + 60_000));
+
+        assertTrue(tokenDenyList.isDenied(jti));
+        assertFalse(tokenDenyList.isDenied(UUID.randomUUID().toString()));
+
+        // a rebuild keeps live entries
+        tokenDenyList.refresh();
+        assertTrue(tokenDenyList.isDenied(jti));
+    }
+
+    @Test
+    void testRefresh_picksUpOtherNodesAndDropsExpired() {
+        String remote = UUID.randomUUID().toString();
+        String expired = UUID.randomUUID().toString();
+        jdbcTemplate.update("insert into revoked_token (jti, expires_at) values (?, ?)", remote,
+                new Timestamp(System.currentTimeMillis() + 60_000));
+        tokenDenyList.deny(expired, new Date(System.currentTimeMillis() - 1));
+
+        tokenDenyList.refresh();
+
+        assertTrue(tokenDenyList.isDenied(remote));
+        assertFalse(tokenDenyList.isDenied(expired));
+    }
+
+    @Test
+    void testBloomFilter_staysNearConfiguredFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("member-" + i));
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,44 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.appartment.facilities.security.classes.TokenVersionRegistry;
+
+@SpringBootTest
+public class TokenVersionRegistryTest {
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testRevoke_rejectsEarlierTokens() {
+        String username = "revoked" + System.nanoTime();
+        int issued = tokenVersionRegistry.currentVersion(username);
+
+        tokenVersionRegistry.revoke(username);
+
+        assertFalse(tokenVersionRegistry.isCurrent(username, issued));
+        assertTrue(tokenVersionRegistry.isCurrent(username, tokenVersionRegistry.currentVersion(username)));
+    }
+
+    @Test
+    void testRefresh_picksUpRevocationsFromOtherNodes() {
+        String username = "remote" + System.nanoTime();
+        jdbcTemplate.update("insert into user_token_version (user_name, min_version) values (?, ?)", username, 3);
+
+        tokenVersionRegistry.refresh();
+
+        assertEquals(3, tokenVersionRegistry.currentVersion(username));
+        assertFalse(tokenVersionRegistry.isCurrent(username, 2));
+    }
+}
@@ -0,0 +1,41 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.appartment.facilities.entity.Resident;
+import com.appartment.facilities.instrumentation.SqlStatementCounter;
+import com.appartment.facilities.repository.ResidentRepository;
+import com.appartment.facilities.security.classes.CustomUserDetailsService;
+
+@SpringBootTest
+public class UserAuthProjectionTest {
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private ResidentRepository residentRepository;
+
+    @Test
+    void testLoadUserByUsername_readsUserTableOnly() {
+        String userName = "projection" + System.nanoTime();
+        residentRepository.save(new Resident(userName, "encoded", "Resident", "Active", "Projection Resident",
+                "A-101", "2BHK", "9876543210", "projection@example.com", null));
+
+        SqlStatementCounter.reset();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(userName);
+
+        assertEquals("Resident", userDetails.getAuthorities().iterator().next().getAuthority());
+        assertEquals(1, SqlStatementCounter.current());
+        String sql = RecordingStatementInspector.lastStatement();
+        assertTrue(sql.contains("user_table"), sql);
+        assertFalse(sql.contains("resident") || sql.contains("manager") || sql.contains(" join "), sql);
+    }
+}
@@ -0,0 +1,133 @@
+package com.appartment.facilities.service.impl.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Compares the list and lookup statements Hibernate issues for the JOINED
+ * user hierarchy with the same reads against a single-table copy built by
+ * the data migration a switch would need.
+ * Run with {@code mvn test -Dtest=UserInheritanceBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inheritancebench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1" })
+public class UserInheritanceBenchmarkTest {
+
+    private static final int RESIDENTS = 20000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+    private static final int LOOKUPS = 2000;
+    private static final int FIRST_ID = 1_000_000;
+
+    // as logged for ResidentRepository.findAll, UserRepository.findAll and findByUserName
+    private static final String JOINED_RESIDENTS = "select r1_0.id,r1_1.password,r1_1.role,r1_1.status,r1_1.user_name,"
+            + "r1_0.email,r1_0.flat_no,r1_0.flat_type,r1_0.name,r1_0.phone,r1_0.picture "
+            + "from resident r1_0 join user_table r1_1 on r1_0.id=r1_1.id";
+    private static final String JOINED_USERS = "select u1_0.id,case when u1_1.id is not null then 1 "
+            + "when u1_2.id is not null then 2 when u1_0.id is not null then 0 end,u1_0.password,u1_0.role,"
+            + "u1_0.status,u1_0.user_name,u1_1.email,u1_1.name,u1_1.phone,u1_2.email,u1_2.flat_no,u1_2.flat_type,"
+            + "u1_2.name,u1_2.phone,u1_2.picture from user_table u1_0 left join manager u1_1 on u1_0.id=u1_1.id "
+            + "left join resident u1_2 on u1_0.id=u1_2.id";
+    private static final String JOINED_LOOKUP = JOINED_USERS + " where u1_0.user_name=?";
+
+    private static final String SINGLE_RESIDENTS = "select id,password,role,status,user_name,email,flat_no,"
+            + "flat_type,name,phone,picture from user_single where dtype='Resident'";
+    private static final String SINGLE_USERS = "select id,dtype,password,role,status,user_name,email,name,phone,"
+            + "flat_no,flat_type,picture from user_single";
+    private static final String SINGLE_LOOKUP = SINGLE_USERS + " where user_name=?";
+
+    private static final String MIGRATION = "insert into user_single (id, dtype, user_name, password, role, status, "
+            + "name, phone, email, flat_no, flat_type, picture) "
+            + "select u.id, case when m.id is not null then 'Manager' when r.id is not null then 'Resident' "
+            + "else 'User' end, u.user_name, u.password, u.role, u.status, coalesce(m.name, r.name), "
+            + "coalesce(m.phone, r.phone), coalesce(m.email, r.email), r.flat_no, r.flat_type, r.picture "
+            + "from user_table u left join manager m on m.id = u.id left join resident r on r.id = u.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("drop table if exists user_single");
+        jdbcTemplate.update("delete from resident where id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from user_table where id >= ?", FIRST_ID);
+
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> residents = new ArrayList<>();
+        for (int i = 0; i < RESIDENTS; i++) {
+            int id = FIRST_ID + i;
+            users.add(new Object[] { id, "bench" + i, "$2a$10$hash", "Resident", "Active" });
+            residents.add(new Object[] { id, "Bench Resident " + i, "A-" + i, "2BHK", "9876543210",
+                    "bench" + i + "@example.com", null });
+        }
+        jdbcTemplate.batchUpdate("insert into user_table (id, user_name, password, role, status) values (?, ?, ?, ?, ?)",
+                users);
+        jdbcTemplate.batchUpdate("insert into resident (id, name, flat_no, flat_type, phone, email, picture) "
+                + "values (?, ?, ?, ?, ?, ?, ?)", residents);
+
+        long begin = System.nanoTime();
+        jdbcTemplate.execute("create table user_single (id integer not null, dtype varchar(31) not null, "
+                + "user_name varchar(255), password varchar(255), role varchar(255), status varchar(255), "
+                + "name varchar(255), phone varchar(255), email varchar(255), flat_no varchar(255), "
+                + "flat_type varchar(255), picture varchar(255), primary key (id))");
+        jdbcTemplate.update(MIGRATION);
+        jdbcTemplate.execute("create unique index uk_user_single_user_name on user_single (user_name)");
+        jdbcTemplate.execute("create index idx_user_single_dtype on user_single (dtype, id)");
+        System.out.printf("single-table data migration of %d users: %d ms%n", RESIDENTS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+    }
+
+    @Test
+    void testListAndLookupStatements() {
+        report("resident list", listMillis(JOINED_RESIDENTS), listMillis(SINGLE_RESIDENTS), "ms");
+        report("user list", listMillis(JOINED_USERS), listMillis(SINGLE_USERS), "ms");
+        report("lookup by name", lookupMicros(JOINED_LOOKUP), lookupMicros(SINGLE_LOOKUP), "us");
+    }
+
+    private double listMillis(String sql) {
+        for (int i = 0; i < WARMUP; i++) {
+            read(sql);
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            read(sql);
+        }
+        return (System.nanoTime() - begin) / 1e6 / ITERATIONS;
+    }
+
+    private double lookupMicros(String sql) {
+        for (int i = 0; i < LOOKUPS; i++) {
+            read(sql, "bench" + i);
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            read(sql, "bench" + (RESIDENTS - 1 - i));
+        }
+        return (System.nanoTime() - begin) / 1e3 / LOOKUPS;
+    }
+
+    private void read(String sql, Object... args) {
+        jdbcTemplate.query(sql, (RowCallbackHandler) row -> {
+            for (int column = 1; column <= row.getMetaData().getColumnCount(); column++) {
+                row.getObject(column);
+            }
+        }, args);
+    }
+
+    private static void report(String read, double joined, double single, String unit) {
+        System.out.printf("%s: joined %.2f %s, single table %.2f %s (%.0f%% faster)%n", read, joined, unit, single,
+                unit, 100 * (joined - single) / joined);
+    }
+}
@@ -0,0 +1,219 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.exception.LoginException;
+import com.appartment.facilities.repository.UserAuthProjection;
+import com.appartment.facilities.repository.UserRepository;
+import com.appartment.facilities.security.classes.AuthenticationRequest;
+import com.appartment.facilities.security.classes.AuthenticationResponse;
+import com.appartment.facilities.security.classes.InMemoryRefreshTokenStore;
+import com.appartment.facilities.security.classes.RefreshTokenRequest;
+import com.appartment.facilities.security.classes.RefreshTokenStore;
+import com.appartment.facilities.security.classes.TokenDenyList;
+import com.appartment.facilities.security.classes.TokenVersionRegistry;
+import com.appartment.facilities.security.config.JwtUtil;
+import com.appartment.facilities.service.impl.UserServiceImpl;
+
+import io.jsonwebtoken.Claims;
+
+@SpringBootTest
+public class UserServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Spy
+    private JwtUtil jwtUtil = new JwtUtil();
+
+    @Spy
+    private RefreshTokenStore refreshTokenStore = new InMemoryRefreshTokenStore();
+
+    @Mock
+    private TokenDenyList tokenDenyList;
+
+    @InjectMocks
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testLogin_issuesTokenFromSingleLookup() throws LoginException {
+        when(userRepository.findAuthByUserName("user1")).thenReturn(authView("user1", "Resident", "Active"));
+        when(passwordEncoder.matches("secret", "hash")).thenReturn(true);
+        when(tokenVersionRegistry.currentVersion("user1")).thenReturn(3);
+
+        String jwt = userService.login(request("user1", "secret")).getJwt();
+
+        Claims claims = jwtUtil.extractAllClaims(jwt);
+        assertEquals("user1", claims.getSubject());
+        assertEquals("Resident", claims.get(JwtUtil.ROLE_CLAIM));
+        assertEquals(3, claims.get(JwtUtil.VERSION_CLAIM));
+        verify(userRepository, times(1)).findAuthByUserName("user1");
+    }
+
+    @Test
+    void testLogin_unknownUser() {
+        when(userRepository.findAuthByUserName("ghost")).thenReturn(null);
+
+        LoginException exception = assertThrows(LoginException.class,
+                () -> userService.login(request("ghost", "secret")));
+
+        assertEquals(ValidationConstants.INVALID_CREDENTIALS, exception.getMessage());
+        // unknown names still pay for a hash check
+        verify(passwordEncoder).matches(eq("secret"), anyString());
+    }
+
+    @Test
+    void testLogin_wrongPassword() {
+        when(userRepository.findAuthByUserName("user1")).thenReturn(authView("user1", "Resident", "Active"));
+        when(passwordEncoder.matches("wrong", "hash")).thenReturn(false);
+
+        LoginException exception = assertThrows(LoginException.class,
+                () -> userService.login(request("user1", "wrong")));
+
+        assertEquals(ValidationConstants.INVALID_CREDENTIALS, exception.getMessage());
+    }
+
+    @Test
+    void testLogin_pendingApproval() {
+        when(userRepository.findAuthByUserName("user1"))
+                .thenReturn(authView("user1", "Resident", ValidationConstants.USER_APPROVAL_PENDING));
+        when(passwordEncoder.matches("secret", "hash")).thenReturn(true);
+
+        LoginException exception = assertThrows(LoginException.class,
+                () -> userService.login(request("user1", "secret")));
+
+        assertEquals(ValidationConstants.USER_APPROVAL_PENDING, exception.getMessage());
+    }
+
+    @Test
+    void testRefresh_rotatesWithoutPasswordCheck() throws LoginException {
+        AuthenticationResponse login = loginActiveUser();
+
+        AuthenticationResponse refreshed = userService.refresh(refreshRequest(login.getRefreshToken()));
+
+        assertEquals("user1", jwtUtil.extractAllClaims(refreshed.getJwt()).getSubject());
+        assertNotEquals(login.getRefreshToken(), refreshed.getRefreshToken());
+        verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+        verify(userRepository, times(1)).findAuthByUserName("user1");
+    }
+
+    @Test
+    void testRefresh_reusedTokenRevokesChain() throws LoginException {
+        AuthenticationResponse login = loginActiveUser();
+        AuthenticationResponse refreshed = userService.refresh(refreshRequest(login.getRefreshToken()));
+
+        LoginException exception = assertThrows(LoginException.class,
+                () -> userService.refresh(refreshRequest(login.getRefreshToken())));
+
+        assertEquals(ValidationConstants.INVALID_REFRESH_TOKEN, exception.getMessage());
+        // the token rotated from the leaked one is revoked as well
+        assertThrows(LoginException.class, () -> userService.refresh(refreshRequest(refreshed.getRefreshToken())));
+    }
+
+    @Test
+    void testRefresh_rejectsRevokedUser() throws LoginException {
+        AuthenticationResponse login = loginActiveUser();
+        when(tokenVersionRegistry.isCurrent("user1", 0)).thenReturn(false);
+
+        assertThrows(LoginException.class, () -> userService.refresh(refreshRequest(login.getRefreshToken())));
+    }
+
+    @Test
+    void testRefresh_unknownToken() {
+        LoginException exception = assertThrows(LoginException.class,
+                () -> userService.refresh(refreshRequest("not-a-token")));
+
+        assertEquals(ValidationConstants.INVALID_REFRESH_TOKEN, exception.getMessage());
+    }
+
+    @Test
+    void testLogout_deniesTokenAndRevokesRefreshChain() throws LoginException {
+        AuthenticationResponse login = loginActiveUser();
+        Claims claims = jwtUtil.extractAllClaims(login.getJwt());
+
+        userService.logout(login.getJwt(), refreshRequest(login.getRefreshToken()));
+
+        verify(tokenDenyList).deny(claims.getId(), claims.getExpiration());
+        assertThrows(LoginException.class, () -> userService.refresh(refreshRequest(login.getRefreshToken())));
+    }
+
+    @Test
+    void testRevokeAccessToken_rejectsForgedToken() {
+        LoginException exception = assertThrows(LoginException.class,
+                () -> userService.revokeAccessToken("not.a.jwt"));
+
+        assertEquals(ValidationConstants.INVALID_ACCESS_TOKEN, exception.getMessage());
+    }
+
+    private AuthenticationResponse loginActiveUser() throws LoginException {
+        when(userRepository.findAuthByUserName("user1")).thenReturn(authView("user1", "Resident", "Active"));
+        when(passwordEncoder.matches("secret", "hash")).thenReturn(true);
+        when(tokenVersionRegistry.isCurrent("user1", 0)).thenReturn(true);
+        return userService.login(request("user1", "secret"));
+    }
+
+    private static RefreshTokenRequest refreshRequest(String refreshToken) {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(refreshToken);
+        return request;
+    }
+
+    private static AuthenticationRequest request(String username, String password) {
+        AuthenticationRequest request = new AuthenticationRequest();
+        request.setUsername(username);
+        request.setPassword(password);
+        return request;
+    }
+
+    private static UserAuthProjection authView(String userName, String role, String status) {
+        return new UserAuthProjection() {
+            @Override
+            public String getUserName() {
+                return userName;
+            }
+
+            @Override
+            public String getPassword() {
+                return "hash";
+            }
+
+            @Override
+            public String getRole() {
+                return role;
+            }
+
+            @Override
+            public String getStatus() {
+                return status;
+            }
+        };
+    }
+}
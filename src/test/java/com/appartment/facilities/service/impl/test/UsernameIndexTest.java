@@ -0,0 +1,106 @@
+package com.appartment.facilities.service.impl.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.appartment.facilities.constants.ValidationConstants;
+import com.appartment.facilities.db.migration.V2_1__Check_duplicate_user_names;
+import com.appartment.facilities.dto.ResidentDto;
+import com.appartment.facilities.entity.Resident;
+import com.appartment.facilities.exception.ResidentException;
+import com.appartment.facilities.repository.ResidentRepository;
+import com.appartment.facilities.security.classes.UsernameIndex;
+import com.appartment.facilities.service.ResidentService;
+
+@SpringBootTest
+public class UsernameIndexTest {
+
+    @Autowired
+    private ResidentService residentService;
+
+    @Autowired
+    private ResidentRepository residentRepository;
+
+    @Autowired
+    private UsernameIndex usernameIndex;
+
+    @Test
+    void testRegistration_marksNameTaken() throws ResidentException {
+        String userName = "taken" + System.nanoTime();
+        assertTrue(residentService.isUsernameAvailable(userName));
+
+        residentService.createResident(residentDto(userName));
+
+        assertTrue(usernameIndex.mightExist(userName));
+        assertTrue(usernameIndex.mightExist(userName.toUpperCase()));
+        assertFalse(residentService.isUsernameAvailable(userName));
+    }
+
+    @Test
+    void testRegistration_uniqueIndexClosesRaceWithStaleFilter() {
+        String userName = "racer" + System.nanoTime();
+        // written by another node, so this node's filter has not seen it yet
+        residentRepository.save(new Resident(userName, "secret", "Resident", "Active", "Racer", "B-202", "2BHK",
+                "9876543210", "racer@example.com", null));
+        assertTrue(residentService.isUsernameAvailable(userName));
+
+        ResidentException exception = assertThrows(ResidentException.class,
+                () -> residentService.createResident(residentDto(userName)));
+        assertEquals(ValidationConstants.USERNAME_EXISTS, exception.getMessage());
+
+        usernameIndex.rebuild();
+        assertFalse(residentService.isUsernameAvailable(userName));
+    }
+
+    @Test
+    void testBlankNames_areNeverAvailable() {
+        assertFalse(usernameIndex.mightExist(null));
+        assertFalse(usernameIndex.mightExist(" "));
+        assertFalse(residentService.isUsernameAvailable(null));
+        assertFalse(residentService.isUsernameAvailable(""));
+    }
+
+    @Test
+    void testMigration_reportsSharedNamesBeforeTheUniqueIndex() throws Exception {
+        // a schema from before the unique index, which the test database already has
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:duplicates;MODE=MySQL");
+                Statement statement = connection.createStatement()) {
+            statement.execute("create table user_table (id integer not null, user_name varchar(255), primary key (id))");
+            statement.execute("insert into user_table values (1, 'Asha'), (2, 'ravi'), (3, null), (4, null)");
+            Context context = mock(Context.class);
+            when(context.getConnection()).thenReturn(connection);
+
+            new V2_1__Check_duplicate_user_names().migrate(context);
+
+            statement.execute("insert into user_table values (5, 'asha')");
+            FlywayException exception = assertThrows(FlywayException.class,
+                    () -> new V2_1__Check_duplicate_user_names().migrate(context));
+            assertTrue(exception.getMessage().contains("asha (2 users)"), exception.getMessage());
+            assertFalse(exception.getMessage().contains("ravi"), exception.getMessage());
+        }
+    }
+
+    private static ResidentDto residentDto(String userName) {
+        ResidentDto residentDto = new ResidentDto();
+        residentDto.setUserName(userName);
+        residentDto.setPassword("secret");
+        residentDto.setName("Index Resident");
+        residentDto.setEmail("index@example.com");
+        residentDto.setPhone("9876543210");
+        return residentDto;
+    }
+}